@@ -0,0 +1,17 @@
+package com.taskapp.backend.Utils;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * Principal léger construit directement à partir des claims d'un JWT vérifié (mode
+ * auth.stateless-claims.enabled) : l'entité User n'est pas chargée. getName() renvoie l'email,
+ * comme Authentication.getName() avec le principal User.
+ */
+public record AuthenticatedUser(long id, String email, String role) implements Principal, Serializable {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
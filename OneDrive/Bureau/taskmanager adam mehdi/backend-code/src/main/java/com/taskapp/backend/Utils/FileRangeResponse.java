@@ -0,0 +1,132 @@
+package com.taskapp.backend.Utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Envoi d'un fichier du disque avec prise en charge des requêtes conditionnelles (If-None-Match,
+ * If-Range) et d'une plage d'octets (Range -> 206). Le contenu n'est jamais chargé en mémoire :
+ * si le connecteur le permet, Tomcat l'envoie lui-même par sendfile une fois la requête terminée,
+ * sinon il est transféré depuis un FileChannel.
+ */
+public final class FileRangeResponse {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private FileRangeResponse() {
+    }
+
+    /**
+     * @param etag ETag fort déjà entre guillemets, ou null si le contenu n'a pas d'empreinte
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long length,
+                            String etag, String contentType, String fileName) throws IOException {
+        send(request, response, file, length, etag, contentType, fileName, false);
+    }
+
+    // inline : contenu affiché par le navigateur (miniatures) plutôt que proposé au téléchargement
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long length,
+                            String etag, String contentType, String fileName, boolean inline) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Revalidation à chaque fois : l'accès dépend de l'affectation de la tâche, qui peut changer
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(fileName != null ? fileName : file.getFileName().toString(), StandardCharsets.UTF_8)
+                .build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        // If-Range : la plage n'est servie que si le client reprend bien ce contenu-là
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean rangeApplies = rangeHeader != null && (ifRange == null || (etag != null && ifRange.equals(etag)));
+        if (rangeApplies) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Plusieurs plages : le fichier entier est renvoyé (autorisé par la RFC 9110)
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setContentLength(0);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, Math.min(remaining, TRANSFER_CHUNK), out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
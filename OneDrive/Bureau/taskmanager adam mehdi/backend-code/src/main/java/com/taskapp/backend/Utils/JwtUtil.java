@@ -1,22 +1,45 @@
 package com.taskapp.backend.Utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Clé et parseur construits une seule fois : ils sont immuables et partagés entre les threads
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("413F4428472B4B6258655368566D5970337336763979244226452948404D6351"));
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGNING_KEY).build();
+
+    // Jetons déjà vérifiés, indexés par leur empreinte SHA-256 (le jeton lui-même n'est pas conservé)
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final int maxCachedTokens;
+
+    public JwtUtil(@Value("${jwt.verified-cache.max-entries:10000}") int maxCachedTokens) {
+        this.maxCachedTokens = maxCachedTokens;
+    }
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -25,49 +48,86 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                // Identifiant unique du jeton, utilisé pour le révoquer à la déconnexion
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(SIGNING_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode("413F4428472B4B6258655368566D5970337336763979244226452948404D6351");
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Vérifie la signature et l'expiration du jeton une seule fois et renvoie ses claims,
+     * ou null si le jeton est invalide ou expiré. Les jetons valides sont mis en cache jusqu'à
+     * leur expiration : les requêtes suivantes ne refont ni le décodage ni le calcul HMAC.
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(key);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = PARSER.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            evict(now);
+        }
+        verifiedTokens.put(key, new VerifiedToken(claims, expiresAt));
+        return claims;
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        Claims claims = verify(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
     }
 
     public String extractUserName(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
-
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
     }
 
+    // Retire d'abord les jetons expirés, puis, si le cache est toujours plein, une partie des entrées
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(token -> token.expiresAt() <= now);
+        int excess = verifiedTokens.size() - maxCachedTokens + maxCachedTokens / 10;
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
 
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-
-
-
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
 }
@@ -0,0 +1,166 @@
+package com.taskapp.backend.Utils;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Curseur opaque pour la pagination par clé (keyset) : encode les valeurs de tri du dernier
+ * élément d'une {@link Window} (ex. createdAt + id) et les restitue sous forme de
+ * {@link ScrollPosition}, sans OFFSET ni requête COUNT.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_SIZE = 100;
+
+    private KeysetCursor() {
+    }
+
+    public static Limit limit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_SIZE)));
+    }
+
+    // Curseur absent = première page ; les clés doivent correspondre exactement au tri attendu
+    public static ScrollPosition decode(String cursor, String... expectedKeys) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String entry : decoded.split("\\|")) {
+                String[] parts = entry.split(":", 3);
+                keys.put(parts[0], parseValue(parts[1], parts[2]));
+            }
+            if (!keys.keySet().equals(Set.of(expectedKeys))) {
+                throw new IllegalArgumentException("Unexpected cursor keys " + keys.keySet());
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    /**
+     * Parcours d'un tri (date, id) dont la date peut être nulle sur des lignes anciennes. Le prédicat
+     * généré par Spring Data (date < :date) écarte les NULL : les lignes datées et non datées sont lues
+     * par deux requêtes distinctes, les secondes triées par id seul, et le curseur porte une date nulle
+     * tant qu'il est dans les lignes non datées. Comme dans MySQL, les NULL viennent en tête en tri
+     * croissant et en fin en tri décroissant.
+     */
+    public static <T> Window<T> scroll(ScrollPosition position, Sort sort, Limit limit, Query<T> dated, Query<T> undated) {
+        List<Sort.Order> orders = sort.toList();
+        String dateKey = orders.get(0).getProperty();
+        Sort idSort = Sort.by(orders.subList(1, orders.size()));
+        boolean undatedFirst = orders.get(0).isAscending();
+
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        boolean inUndated = keyset.isInitial() ? undatedFirst : keyset.getKeys().get(dateKey) == null;
+        Window<T> window = inUndated
+                ? undated(undated, withoutKey(keyset, dateKey), idSort, limit, dateKey)
+                : dated.find(position, sort, limit);
+        if (window.hasNext() || inUndated != undatedFirst) {
+            return window;
+        }
+
+        // Fin de la première série : la page est complétée par le début de la seconde
+        int remaining = limit.max() - window.size();
+        Limit nextLimit = Limit.of(Math.max(remaining, 1));
+        Window<T> next = inUndated
+                ? dated.find(ScrollPosition.keyset(), sort, nextLimit)
+                : undated(undated, ScrollPosition.keyset(), idSort, nextLimit, dateKey);
+        List<T> content = new ArrayList<>(window.getContent());
+        content.addAll(next.getContent().subList(0, Math.min(remaining, next.size())));
+        int split = window.size();
+        return Window.from(content, index -> index < split ? window.positionAt(index) : next.positionAt(index - split),
+                next.hasNext() || next.size() > remaining);
+    }
+
+    // Requête de pagination par clé d'un dépôt, ex. findByUserIdAndCreatedAtIsNull(userId, position, sort, limit)
+    @FunctionalInterface
+    public interface Query<T> {
+        Window<T> find(ScrollPosition position, Sort sort, Limit limit);
+    }
+
+    // Lignes non datées : parcourues par id, la date nulle est réintroduite dans leurs positions
+    private static <T> Window<T> undated(Query<T> query, ScrollPosition position, Sort idSort, Limit limit, String dateKey) {
+        Window<T> window = query.find(position, idSort, limit);
+        return Window.from(window.getContent(), index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(dateKey, null);
+            keys.putAll(((KeysetScrollPosition) window.positionAt(index)).getKeys());
+            return ScrollPosition.forward(keys);
+        }, window.hasNext());
+    }
+
+    private static ScrollPosition withoutKey(KeysetScrollPosition position, String key) {
+        Map<String, Object> keys = new LinkedHashMap<>(position.getKeys());
+        keys.remove(key);
+        return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+    }
+
+    // null quand il n'y a pas de page suivante
+    public static String encode(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return encode(position.getKeys());
+    }
+
+    // Curseur construit à partir des valeurs de tri d'un élément déjà chargé hors d'une Window
+    public static String encode(Map<String, ?> keys) {
+        StringBuilder builder = new StringBuilder();
+        keys.forEach((key, value) -> {
+            if (builder.length() > 0) {
+                builder.append('|');
+            }
+            builder.append(key).append(':').append(formatValue(value));
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Les lignes anciennes peuvent avoir une date nulle : la clé est alors encodée comme absente
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "n:";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "t:" + dateTime;
+        }
+        if (value instanceof Long number) {
+            return "l:" + number;
+        }
+        if (value instanceof Integer number) {
+            return "i:" + number;
+        }
+        if (value instanceof String text) {
+            return "s:" + text;
+        }
+        throw new IllegalStateException("Unsupported cursor value type: " + value);
+    }
+
+    private static Object parseValue(String type, String value) {
+        return switch (type) {
+            case "t" -> LocalDateTime.parse(value);
+            case "l" -> Long.parseLong(value);
+            case "i" -> Integer.parseInt(value);
+            case "s" -> value;
+            case "n" -> null;
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        };
+    }
+}
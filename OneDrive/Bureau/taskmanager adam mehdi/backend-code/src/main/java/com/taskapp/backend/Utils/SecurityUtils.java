@@ -0,0 +1,25 @@
+package com.taskapp.backend.Utils;
+
+import com.taskapp.backend.entities.User;
+import org.springframework.security.core.Authentication;
+
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+    }
+
+    // Id de l'utilisateur connecté, que le principal soit l'entité User ou un AuthenticatedUser ; null sinon
+    public static Long currentUserId(Authentication auth) {
+        if (auth == null) {
+            return null;
+        }
+        Object principal = auth.getPrincipal();
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        if (principal instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.taskapp.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite le nombre de requêtes /api traitées simultanément, proportionnellement à la taille du pool Hikari.
+ * Avec les threads virtuels, Tomcat ne borne plus la concurrence : sans cette limite, des milliers
+ * de requêtes attendraient une connexion dans Hikari jusqu'à son timeout. Ici l'attente est courte
+ * et l'excès est refusé en 503. Quelques permis par connexion laissent passer les requêtes servies
+ * depuis la mémoire (caches, boîte de notifications) sans laisser grossir la file devant le pool.
+ * Les transferts de fichiers (téléchargement, miniature, morceau d'envoi) ne tiennent pas de connexion
+ * pendant le transfert : ils ne prennent pas de permis, un client lent ne bloque donc pas les autres.
+ * Les exports gardent une connexion (curseur) pendant tout le flux : ils ont leurs propres permis.
+ */
+@Component
+@ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern FILE_TRANSFER = Pattern.compile("/api/attachments/[^/]+/(download|thumbnail)");
+    private static final Pattern CHUNK_UPLOAD = Pattern.compile("/api/attachments/uploads/[^/]+");
+    private static final String EXPORT_PREFIX = "/api/export/";
+
+    private final Semaphore permits;
+    private final Semaphore exportPermits;
+    private final long acquireTimeoutMillis;
+    private final Timer wait;
+    private final Counter rejected;
+
+    public DatabaseConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                          @Value("${db.concurrency-limit.permits-per-connection:4}") int permitsPerConnection,
+                                          @Value("${db.concurrency-limit.acquire-timeout-ms:2000}") long acquireTimeoutMillis,
+                                          @Value("${db.concurrency-limit.export-permits:2}") int exportPermits) {
+        this.permits = new Semaphore(poolSize * permitsPerConnection, true);
+        this.exportPermits = new Semaphore(exportPermits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.wait = Timer.builder("db.concurrency-limit.wait")
+                .description("Attente d'un permis avant le traitement d'une requête")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.concurrency-limit.rejected")
+                .description("Requêtes refusées faute de permis dans le délai")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency-limit.available", this.permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency-limit.export.available", this.exportPermits, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith("/api/")) {
+            return true;
+        }
+        // Une seule lecture en base avant le transfert, qui peut durer aussi longtemps que le client le veut
+        return ("GET".equals(request.getMethod()) && FILE_TRANSFER.matcher(uri).matches())
+                || ("PUT".equals(request.getMethod()) && CHUNK_UPLOAD.matcher(uri).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Semaphore pool = request.getRequestURI().startsWith(EXPORT_PREFIX) ? exportPermits : permits;
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = pool.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, please retry");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            pool.release();
+        }
+    }
+}
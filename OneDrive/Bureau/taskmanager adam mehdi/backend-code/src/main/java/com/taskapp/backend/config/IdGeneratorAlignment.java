@@ -0,0 +1,56 @@
+package com.taskapp.backend.config;
+
+import com.taskapp.backend.entities.Task;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recale les compteurs de la table id_generator sur les données existantes, avant la première
+ * insertion : une base créée avec des colonnes AUTO_INCREMENT contient déjà des ids que
+ * le générateur par blocs ne doit pas réattribuer.
+ * Avec l'optimiseur pooled, une valeur stockée V peut donner des ids dès V - allocation + 1 : le
+ * compteur est donc porté au moins à MAX(id) + allocation. Ne fait jamais reculer un compteur.
+ */
+@Component
+public class IdGeneratorAlignment {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignment.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory injectée pour s'exécuter après la mise à jour du schéma par Hibernate
+    public IdGeneratorAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        align("task", "task", Task.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String sequenceName, String table, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long target = maxId + allocationSize;
+        int updated = jdbcTemplate.update(
+                "UPDATE id_generator SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                target, sequenceName, target);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM id_generator WHERE sequence_name = ?", Integer.class, sequenceName);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO id_generator (sequence_name, next_val) VALUES (?, ?)", sequenceName, target);
+                updated = 1;
+            }
+        }
+        if (updated > 0) {
+            logger.info("Identifier generator '{}' aligned after existing id {}", sequenceName, maxId);
+        }
+    }
+}
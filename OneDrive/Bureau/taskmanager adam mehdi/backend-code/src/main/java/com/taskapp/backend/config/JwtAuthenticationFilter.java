@@ -1,7 +1,11 @@
 package com.taskapp.backend.config;
 
 import ch.qos.logback.core.util.StringUtil;
+import com.taskapp.backend.Utils.AuthenticatedUser;
 import com.taskapp.backend.Utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import com.taskapp.backend.services.jwt.TokenRevocationService;
+import com.taskapp.backend.services.jwt.TokenVersionRegistry;
 import com.taskapp.backend.services.jwt.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -12,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,6 +37,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${auth.stateless-claims.enabled:false}")
+    private boolean statelessClaims;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -41,6 +51,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String userEmail;
+        final Claims claims;
 
         // Check if the Authorization header is valid
         if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWith(authHeader, "Bearer")) {
@@ -48,31 +59,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extract the JWT token and username from it
+        // Extract the JWT token and verify it once (signature, expiration); invalid tokens stay anonymous
         jwt = authHeader.substring(7);
-        userEmail = jwtUtil.extractUserName(jwt);
+        claims = jwtUtil.verify(jwt);
+        if (claims == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        userEmail = claims.getSubject();
 
         // Proceed if userEmail is valid and no authentication is set in context
         if (!StringUtils.isEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.userDetailService().loadUserByUsername(userEmail);
+            // Tokens revoked at logout, issued before a role change or a forced logout (outdated version),
+            // or without uid/ver claims (issued before token versions existed)
+            Number uid = (Number) claims.get("uid");
+            Number version = (Number) claims.get("ver");
+            if (tokenRevocationService.isRevoked(claims.getId())
+                    || !tokenVersionRegistry.isCurrent(uid, version)) {
+                logger.info("Rejected revoked or outdated token for user: {}", userEmail);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            // Extract the role from the JWT and map it to authorities
+            String role = (String) claims.get("role");
+            var authorities = (role != null)
+                    ? Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                    : Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));  // Default if role is missing
+
+            // Stateless mode: the principal is built from the verified claims, the User entity is not loaded
+            Object principal = null;
+            if (statelessClaims && role != null) {
+                principal = new AuthenticatedUser(uid.longValue(), userEmail, role);
+            } else {
+                UserDetails userDetails = userService.cachedUserDetailService().loadUserByUsername(userEmail);
+                if (userEmail.equals(userDetails.getUsername())) {
+                    principal = userDetails;
+                }
+            }
 
             // Validate the token
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (principal != null) {
                 // Log for debugging purposes
                 logger.info("JWT token is valid for user: {}", userEmail);
 
                 // Create an empty security context
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
 
-                // Extract the role from the JWT and map it to authorities
-                String role = (String) jwtUtil.extractAllClaims(jwt).get("role");
-                var authorities = (role != null)
-                        ? Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                        : Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));  // Default if role is missing
-
                 // Create an authentication token and set it in the context
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
+                        principal, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 context.setAuthentication(authToken);
                 SecurityContextHolder.setContext(context);
@@ -0,0 +1,47 @@
+package com.taskapp.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate sur le thread courant, et parmi elles les lectures.
+ * Sert à vérifier qu'une page est chargée avec un nombre fixe de requêtes (voir DtoAssembler) ;
+ * les écritures vidées automatiquement avant une lecture (auto-flush) ne comptent pas dans ce budget.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    // [0] : toutes les requêtes, [1] : les SELECT
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        count[0]++;
+        if (isSelect(sql)) {
+            count[1]++;
+        }
+        return sql;
+    }
+
+    // Nombre de requêtes exécutées par ce thread depuis son démarrage
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    // Nombre de SELECT exécutés par ce thread depuis son démarrage
+    public static long currentSelects() {
+        return COUNT.get()[1];
+    }
+
+    private static boolean isSelect(String sql) {
+        String statement = sql.stripLeading();
+        // Commentaires SQL éventuels (hibernate.use_sql_comments) avant l'instruction
+        while (statement.startsWith("/*")) {
+            int end = statement.indexOf("*/");
+            if (end < 0) {
+                return false;
+            }
+            statement = statement.substring(end + 2).stripLeading();
+        }
+        return statement.regionMatches(true, 0, "select", 0, 6) || statement.regionMatches(true, 0, "with", 0, 4);
+    }
+}
@@ -0,0 +1,104 @@
+package com.taskapp.backend.config;
+
+import com.taskapp.backend.Utils.JwtUtil;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.services.jwt.TokenRevocationService;
+import com.taskapp.backend.services.jwt.TokenVersionRegistry;
+import com.taskapp.backend.services.jwt.UserService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+/**
+ * Authentifie les connexions STOMP avec le même JWT que JwtAuthenticationFilter, transmis
+ * dans l'en-tête natif "Authorization" de la trame CONNECT. Les autres trames sont refusées
+ * tant que la session n'est pas authentifiée, puis contrôlées par destination : abonnement
+ * uniquement aux files de l'utilisateur (/user/queue/..., résolues par Spring vers la session
+ * courante), envoi uniquement vers les destinations applicatives (/app/...), jamais directement au broker.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+    private final UserService userService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationService tokenRevocationService;
+
+    private static final String OWN_QUEUE_PREFIX = "/user/queue/";
+    private static final String APPLICATION_PREFIX = "/app/";
+
+    @Value("${auth.stateless-claims.enabled:false}")
+    private boolean statelessClaims;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkDestination(accessor, OWN_QUEUE_PREFIX);
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            checkDestination(accessor, APPLICATION_PREFIX);
+        }
+        return message;
+    }
+
+    // Un abonnement à /queue/... ou /user/{autre}/... permettrait de lire les notifications d'un autre utilisateur
+    private void checkDestination(StompHeaderAccessor accessor, String allowedPrefix) {
+        if (accessor.getUser() == null) {
+            throw new AccessDeniedException("STOMP session is not authenticated");
+        }
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(allowedPrefix) || destination.contains("..")) {
+            throw new AccessDeniedException("STOMP destination not allowed: " + destination);
+        }
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWith(authHeader, "Bearer ")) {
+            throw new AccessDeniedException("Missing bearer token");
+        }
+        String jwt = authHeader.substring(7);
+        Claims claims = jwtUtil.verify(jwt);
+        if (claims == null) {
+            throw new AccessDeniedException("Invalid token");
+        }
+        Number uid = (Number) claims.get("uid");
+        Number version = (Number) claims.get("ver");
+        if (tokenRevocationService.isRevoked(claims.getId())
+                || !tokenVersionRegistry.isCurrent(uid, version)) {
+            throw new AccessDeniedException("Invalid token");
+        }
+        String role = (String) claims.get("role");
+        var authorities = (role != null)
+                ? Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                : Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        try {
+            // Le nom du principal est l'id utilisateur : les destinations /user/... sont adressées par userId
+            long userId = statelessClaims
+                    ? uid.longValue()
+                    : ((User) userService.cachedUserDetailService().loadUserByUsername(claims.getSubject())).getId();
+            return new UsernamePasswordAuthenticationToken(String.valueOf(userId), null, authorities);
+        } catch (UsernameNotFoundException e) {
+            throw new AccessDeniedException("Invalid token");
+        }
+    }
+}
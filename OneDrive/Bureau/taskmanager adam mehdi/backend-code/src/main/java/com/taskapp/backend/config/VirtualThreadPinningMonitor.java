@@ -0,0 +1,86 @@
+package com.taskapp.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic de l'épinglage des threads virtuels (profil "virtual") : un thread virtuel qui bloque
+ * dans un bloc synchronized (pilote JDBC, Hibernate, pool) immobilise son thread porteur. Les événements
+ * JFR jdk.VirtualThreadPinned au-delà du seuil sont comptés, et chaque emplacement distinct est journalisé
+ * une fois avec le haut de sa pile.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Timer pinnedTime;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.pinned = Counter.builder("virtual.threads.pinned")
+                .description("Threads virtuels épinglés au-delà du seuil")
+                .register(meterRegistry);
+        this.pinnedTime = Timer.builder("virtual.threads.pinned.duration")
+                .description("Durée des épinglages au-delà du seuil")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            pinnedTime.record(event.getDuration());
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (stackTrace == null) {
+                return;
+            }
+            List<RecordedFrame> frames = stackTrace.getFrames();
+            String location = frames.isEmpty() ? "?" : describe(frames.get(0));
+            if (reportedLocations.add(location)) {
+                logger.warn("Virtual thread pinned for {} ms at:\n    {}", event.getDuration().toMillis(),
+                        frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::describe)
+                                .collect(Collectors.joining("\n    ")));
+            }
+        });
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -34,6 +34,12 @@ public class WebSecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(request -> request
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Rendu des erreurs des endpoints publics (ex. 503 de la connexion) au lieu d'un 403
+                        .requestMatchers("/error").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Poignée de main WebSocket/SockJS : l'authentification se fait sur la trame STOMP CONNECT
+                        .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole(UserRole.ADMIN.name())
                         .requestMatchers("/api/admin/**").hasRole(UserRole.ADMIN.name())
                         .requestMatchers("/api/employee/**").hasRole(UserRole.EMPLOYEE.name())
                         .requestMatchers("/api/tasks/**").hasAnyRole("ADMIN", "EMPLOYEE")
@@ -1,14 +1,24 @@
 package com.taskapp.backend.controller.Attachment;
 
 import com.taskapp.backend.dto.AttachmentDTO;
+import com.taskapp.backend.dto.UploadSessionRequest;
+import com.taskapp.backend.Utils.FileRangeResponse;
 import com.taskapp.backend.services.Attachment.AttachmentService;
+import com.taskapp.backend.services.Attachment.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/attachments")
@@ -17,6 +27,7 @@ import java.io.IOException;
 public class AttachmentController {
 
     private final AttachmentService attachmentService;
+    private final ChunkedUploadService chunkedUploadService;
 
     @PostMapping("/upload")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
@@ -33,6 +44,34 @@ public class AttachmentController {
         return ResponseEntity.ok(attachmentService.getAttachmentById(id));
     }
 
+    // Contenu du fichier : plages d'octets (reprise), ETag fort issu du SHA-256 et réponses 304
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public void downloadAttachment(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        AttachmentService.AttachmentContent content = attachmentService.getAttachmentContent(id);
+        String etag = content.contentHash() != null ? "\"" + content.contentHash() + "\"" : null;
+        FileRangeResponse.send(request, response, content.path(), content.size(), etag,
+                content.fileType(), content.fileName());
+    }
+
+    // Miniature JPEG (première page pour un PDF) ; 202 tant qu'elle est en cours de génération
+    @GetMapping("/{id}/thumbnail")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public void getThumbnail(@PathVariable Long id,
+                             @RequestParam(defaultValue = "160") int size,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<AttachmentService.AttachmentContent> thumbnail = attachmentService.getThumbnailContent(id, size);
+        if (thumbnail.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+            return;
+        }
+        AttachmentService.AttachmentContent content = thumbnail.get();
+        FileRangeResponse.send(request, response, content.path(), content.size(), "\"" + content.contentHash() + "\"",
+                content.fileType(), content.fileName(), true);
+    }
+
     @GetMapping("/task/{taskId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<?> getAttachmentsByTask(
@@ -48,4 +87,40 @@ public class AttachmentController {
         attachmentService.deleteAttachment(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    // Envoi par morceaux reprenable : ouverture -> PUT des morceaux à leur position -> validation
+    @PostMapping("/uploads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> openUpload(@Valid @RequestBody UploadSessionRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(chunkedUploadService.open(request));
+    }
+
+    // Corps brut du morceau ; un corps de formulaire serait consommé par FormContentFilter
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(chunkedUploadService.writeChunk(uploadId, offset,
+                request.getContentLengthLong(), request.getInputStream()));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+    }
+
+    @PostMapping("/uploads/{uploadId}/commit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> commitUpload(@PathVariable String uploadId) throws IOException {
+        return ResponseEntity.ok(chunkedUploadService.commit(uploadId));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) throws IOException {
+        chunkedUploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
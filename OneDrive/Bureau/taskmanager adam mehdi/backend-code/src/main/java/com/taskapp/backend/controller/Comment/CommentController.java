@@ -46,7 +46,36 @@ public class CommentController {
     public ResponseEntity<?> getCommentsByTask(
             @PathVariable Long taskId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(commentService.scrollCommentsByTask(taskId, after, size));
+        }
         return ResponseEntity.ok(commentService.getCommentsByTask(taskId, page, size));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/task/{taskId}/threads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> getCommentThreads(
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(defaultValue = "3") int replies) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(commentService.scrollCommentThreads(taskId, after, size, replies));
+        }
+        return ResponseEntity.ok(commentService.getCommentThreads(taskId, page, size));
+    }
+
+    @GetMapping("/{id}/replies")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> getReplies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.scrollReplies(id, after, size));
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskapp.backend.controller.Export;
+
+import com.taskapp.backend.services.Export.ExportFormat;
+import com.taskapp.backend.services.Export.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Exports en flux (CSV ou NDJSON, éventuellement compressés en gzip), écrits directement dans la réponse
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    // Mêmes filtres que GET /api/tasks/search
+    @GetMapping("/tasks")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTasks(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) List<Long> labelIds,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        stream(response, "tasks", exportFormat, gzip,
+                out -> exportService.exportTasks(title, description, status, priority, labelIds, exportFormat, out));
+    }
+
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTaskHistory(
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        stream(response, "task-history", exportFormat, gzip,
+                out -> exportService.exportTaskHistory(taskId, exportFormat, out));
+    }
+
+    @GetMapping("/comments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportComments(
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        stream(response, "comments", exportFormat, gzip,
+                out -> exportService.exportComments(taskId, exportFormat, out));
+    }
+
+    // Un export interrompu ne doit pas ressembler à un fichier complet : en cas d'échec le gzip n'est pas
+    // terminé (ni bloc final ni CRC) et l'exception remonte jusqu'au conteneur, qui coupe alors la
+    // connexion d'une réponse déjà engagée au lieu de la clore normalement
+    private void stream(HttpServletResponse response, String name, ExportFormat format, boolean gzip, Export export)
+            throws IOException {
+        OutputStream out = open(response, name, format, gzip);
+        try {
+            export.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            if (out instanceof AbortableGzip abortable) {
+                abortable.abort();
+            }
+            throw e;
+        }
+        out.close();
+    }
+
+    // Fichier à télécharger ; avec gzip, un .gz (et non Content-Encoding) pour que le client le garde compressé
+    private OutputStream open(HttpServletResponse response, String name, ExportFormat format, boolean gzip)
+            throws IOException {
+        String fileName = name + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + format.extension();
+        if (gzip) {
+            fileName += ".gz";
+        }
+        response.setContentType(gzip ? "application/gzip" : format.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        OutputStream out = response.getOutputStream();
+        return gzip ? new AbortableGzip(out) : out;
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // Gzip abandonné sans écrire sa fin : seul le compresseur natif est libéré
+    private static final class AbortableGzip extends GZIPOutputStream {
+
+        private AbortableGzip(OutputStream out) throws IOException {
+            super(out, GZIP_BUFFER_SIZE);
+        }
+
+        private void abort() {
+            def.end();
+        }
+    }
+}
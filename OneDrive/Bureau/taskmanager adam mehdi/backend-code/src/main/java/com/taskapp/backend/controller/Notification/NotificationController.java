@@ -4,9 +4,14 @@ import com.taskapp.backend.dto.NotificationDTO;
 import com.taskapp.backend.services.Notification.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/notifications")
 @RequiredArgsConstructor
@@ -18,7 +23,12 @@ public class NotificationController {
     public ResponseEntity<?> getNotificationsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(notificationService.scrollNotificationsByUser(userId, after, size));
+        }
         Page<NotificationDTO> notifications = notificationService.getNotificationsByUser(userId, page, size);
         return ResponseEntity.ok(notifications);
     }
@@ -27,7 +37,12 @@ public class NotificationController {
     public ResponseEntity<?> getUnreadNotificationsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(notificationService.scrollUnreadNotificationsByUser(userId, after, size));
+        }
         Page<NotificationDTO> notifications = notificationService.getUnreadNotificationsByUser(userId, page, size);
         return ResponseEntity.ok(notifications);
     }
@@ -48,6 +63,28 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.markAsRead(id));
     }
 
+    @PutMapping("/user/{userId}/mark-all-read")
+    public ResponseEntity<?> markAllAsRead(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("updated", notificationService.markAllAsRead(userId)));
+    }
+
+    @PutMapping("/user/{userId}/mark-read")
+    public ResponseEntity<?> markAsRead(@PathVariable Long userId, @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(Map.of("updated", notificationService.markAsRead(userId, ids)));
+    }
+
+    @DeleteMapping("/user/{userId}/read")
+    public ResponseEntity<?> deleteReadNotifications(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("deleted", notificationService.deleteReadNotifications(userId)));
+    }
+
+    @DeleteMapping("/user/{userId}")
+    public ResponseEntity<?> deleteNotificationsOlderThan(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
+        return ResponseEntity.ok(Map.of("deleted", notificationService.deleteNotificationsOlderThan(userId, before)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteNotification(@PathVariable Long id) {
         notificationService.deleteNotification(id);
@@ -1,5 +1,6 @@
 package com.taskapp.backend.controller.Task;
 
+import com.taskapp.backend.dto.BulkTaskRequest;
 import com.taskapp.backend.dto.TaskDTO;
 import com.taskapp.backend.dto.TaskHistoryDTO;
 import com.taskapp.backend.services.Task.TaskService;
@@ -10,6 +11,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -28,6 +30,13 @@ public class TaskController {
         return ResponseEntity.ok(taskService.createTask(taskDTO));
     }
 
+    // Création en lot dans une seule transaction : le lot est rejeté en entier si une tâche est invalide
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createTasks(@RequestBody List<@Valid TaskDTO> taskDTOs) {
+        return ResponseEntity.ok(taskService.createTasks(taskDTOs));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<?> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDTO taskDTO) {
@@ -41,6 +50,20 @@ public class TaskController {
         return ResponseEntity.ok().build();
     }
 
+    // Suppression en masse : DELETE /api/tasks?ids=1,2,3
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteTasks(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(Map.of("deleted", taskService.deleteTasks(ids)));
+    }
+
+    // Modification en masse (statut, assignation, étiquettes) par liste d'ids ou par filtre de recherche
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdate(@RequestBody BulkTaskRequest request) {
+        return ResponseEntity.ok(taskService.bulkUpdate(request));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<?> getTask(@PathVariable Long id) {
@@ -51,7 +74,12 @@ public class TaskController {
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<?> getAllTasks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(taskService.scrollTasks(after, size));
+        }
         return ResponseEntity.ok(taskService.getAllTasks(page, size));
     }
 
@@ -60,7 +88,12 @@ public class TaskController {
     public ResponseEntity<?> getTasksByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(taskService.scrollTasksByUser(userId, after, size));
+        }
         return ResponseEntity.ok(taskService.getTasksByUser(userId, page, size));
     }
 
@@ -87,7 +120,12 @@ public class TaskController {
     public ResponseEntity<?> getTaskHistory(
             @PathVariable Long taskId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(taskService.scrollTaskHistory(taskId, after, size));
+        }
         return ResponseEntity.ok(taskService.getTaskHistory(taskId, page, size));
     }
 
@@ -100,20 +138,53 @@ public class TaskController {
             @RequestParam(required = false) String priority,
             @RequestParam(required = false) List<Long> labelIds,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean keyset) {
+        if (keyset || after != null) {
+            return ResponseEntity.ok(taskService.scrollSearchTasks(title, description, status, priority, labelIds, after, size));
+        }
         return ResponseEntity.ok(taskService.searchTasks(title, description, status, priority, labelIds, page, size));
     }
 
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        taskService.rebuildSearchIndex();
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/kanban")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<?> getKanbanBoard() {
         return ResponseEntity.ok(taskService.getKanbanBoard());
     }
 
+    @GetMapping("/kanban/columns")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> getKanbanColumns(@RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.getKanbanColumns(size));
+    }
+
+    @GetMapping("/kanban/columns/{status}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<?> getKanbanColumn(
+            @PathVariable String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.getKanbanColumn(status, after, size));
+    }
+
     @GetMapping("/analytics")
     @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<?> getTaskAnalytics(
             @RequestParam(required = false) String timeFrame) {
         return ResponseEntity.ok(taskService.getTaskAnalytics(timeFrame));
     }
+
+    @PostMapping("/analytics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildTaskAnalytics() {
+        return ResponseEntity.ok(java.util.Map.of("buckets", taskService.rebuildTaskAnalytics()));
+    }
 }
\ No newline at end of file
@@ -59,6 +59,12 @@ public class AdminController {
         return ResponseEntity.ok(adminService.updateUserRole(id, newRole));
     }
 
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable Long id) {
+        adminService.revokeUserTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/test")
     public  String test(){
         return "testsucces";
@@ -1,38 +1,25 @@
 package com.taskapp.backend.controller.auth;
 
-import com.taskapp.backend.Utils.JwtUtil;
 import com.taskapp.backend.dto.AuthenticationRequest;
 import com.taskapp.backend.dto.AuthenticationResponse;
 import com.taskapp.backend.dto.SignupRequest;
 import com.taskapp.backend.dto.UserDto;
-import com.taskapp.backend.entities.User;
-import com.taskapp.backend.repositories.UserRepository;
 import com.taskapp.backend.services.auth.AuthService;
-import com.taskapp.backend.services.jwt.UserService;
-import io.jsonwebtoken.Jwt;
+import com.taskapp.backend.services.auth.LoginService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
-    private  final UserService userService;
-    private  final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signUser(@RequestBody SignupRequest signupRequest){
@@ -44,29 +31,18 @@ public class AuthController {
 
         return  ResponseEntity.status(HttpStatus.CREATED).body(createUserDto);
     }
+    // La vérification du mot de passe se termine sur le pool de LoginService : le thread Tomcat est libéré
     @PostMapping("/login")
-    public AuthenticationResponse login(@RequestBody AuthenticationRequest authenticationRequest){
-        try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(authenticationRequest.getEmail(),authenticationRequest.getPassword()));
-
-        }catch (BadCredentialsException e){
-            throw new BadCredentialsException("Incorrect username or password");
+    public CompletableFuture<AuthenticationResponse> login(@RequestBody AuthenticationRequest authenticationRequest){
+        return loginService.login(authenticationRequest);
+    }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader){
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            loginService.logout(authHeader.substring(7));
         }
-        final UserDetails userDetails = userService.userDetailService().loadUserByUsername(authenticationRequest.getEmail());
-        Optional<User> optionalUser =userRepository.findFirstByEmail(authenticationRequest.getEmail());
-        // Add role as a claim
-        String role = optionalUser.map(u -> u.getUserRole().name()).orElse("");
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
-        final String jwtToken =jwtUtil.generateToken(claims, userDetails);
-        AuthenticationResponse authenticationResponse = new AuthenticationResponse();
-        if (optionalUser.isPresent()) {
-            authenticationResponse.setJwt(jwtToken);
-            authenticationResponse.setUserId(optionalUser.get().getId());
-            authenticationResponse.setUserRole(optionalUser.get().getUserRole());
-        }
-        return authenticationResponse;
+        return ResponseEntity.noContent().build();
     }
 
 }
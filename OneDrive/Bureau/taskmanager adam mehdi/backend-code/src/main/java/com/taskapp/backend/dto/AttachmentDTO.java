@@ -21,4 +21,6 @@ public class AttachmentDTO {
     private Long uploadedById;
     private String uploadedByName;
     private LocalDateTime uploadedAt;
+    // Une miniature peut être demandée sur /api/attachments/{id}/thumbnail
+    private boolean previewable;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.taskapp.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Opération groupée sur des tâches : sélection par ids ou par filtre de recherche, puis une ou plusieurs modifications
+@Data
+public class BulkTaskRequest {
+    private List<Long> ids;
+    private Filter filter;
+
+    // Modifications : seules celles renseignées sont appliquées
+    private String status;
+    private Long assignedToId;
+    private boolean unassign;
+    private List<Long> addLabelIds;
+    private List<Long> removeLabelIds;
+
+    // Compte les tâches concernées sans rien modifier
+    private boolean dryRun;
+
+    // Mêmes critères que GET /api/tasks/search
+    @Data
+    public static class Filter {
+        private String title;
+        private String description;
+        private String status;
+        private String priority;
+        private List<Long> labelIds;
+    }
+}
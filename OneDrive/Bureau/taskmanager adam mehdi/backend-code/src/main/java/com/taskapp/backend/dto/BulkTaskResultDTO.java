@@ -0,0 +1,14 @@
+package com.taskapp.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkTaskResultDTO {
+    private boolean dryRun;
+    // Tâches sélectionnées
+    private int matched;
+    // Tâches effectivement modifiées (ou qui le seraient en dryRun)
+    private int affected;
+    private int historyEntries;
+    private int notifiedUsers;
+}
@@ -10,6 +10,12 @@ import java.util.List;
 public class CommentDTO {
     private Long parentId;
     private List<CommentDTO> replies;
+    private Integer depth;
+    // Réponses dans tout le sous-fil, y compris celles absentes de replies
+    private Integer replyCount;
+    // Curseur de GET /api/comments/{id}/replies pour la suite des réponses (null : rien après celles affichées,
+    // ou aucune affichée et la suite commence sans curseur)
+    private String repliesCursor;
 
     private Long id;
 
@@ -0,0 +1,27 @@
+package com.taskapp.backend.dto;
+
+import com.taskapp.backend.Utils.KeysetCursor;
+import lombok.Data;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+// Page obtenue par curseur : pas de total (aucune requête COUNT), seulement le curseur suivant
+@Data
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    // Recherche plein texte plafonnée : des tâches correspondantes ne seront pas parcourues
+    private boolean truncated;
+
+    public static <T> CursorPageDTO<T> of(List<T> content, Window<?> window) {
+        CursorPageDTO<T> page = new CursorPageDTO<>();
+        page.setContent(content);
+        page.setSize(content.size());
+        page.setHasNext(window.hasNext());
+        page.setNextCursor(KeysetCursor.encode(window));
+        return page;
+    }
+}
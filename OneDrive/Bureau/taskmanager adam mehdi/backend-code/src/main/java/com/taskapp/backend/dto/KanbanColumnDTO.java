@@ -0,0 +1,14 @@
+package com.taskapp.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class KanbanColumnDTO {
+    private String status;
+    private long count;
+    private List<TaskDTO> tasks;
+    // Curseur à renvoyer dans "after" pour obtenir la page suivante de la colonne (null si dernière page)
+    private Long nextCursor;
+    private boolean hasMore;
+}
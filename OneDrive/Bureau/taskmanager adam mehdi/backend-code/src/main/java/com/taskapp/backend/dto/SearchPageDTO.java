@@ -0,0 +1,22 @@
+package com.taskapp.backend.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+// Page de résultats de recherche ; truncated indique que la correspondance plein texte a été plafonnée,
+// le total ne comptant alors que les tâches retenues
+public class SearchPageDTO<T> extends PageImpl<T> {
+
+    private final boolean truncated;
+
+    public SearchPageDTO(List<T> content, Pageable pageable, long total, boolean truncated) {
+        super(content, pageable, total);
+        this.truncated = truncated;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
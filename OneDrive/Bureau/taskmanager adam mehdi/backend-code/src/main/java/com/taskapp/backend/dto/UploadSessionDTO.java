@@ -0,0 +1,20 @@
+package com.taskapp.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// État d'un envoi par morceaux : les plages [début, fin) déjà reçues permettent de reprendre après une coupure
+@Data
+public class UploadSessionDTO {
+    private String uploadId;
+    private Long taskId;
+    private String fileName;
+    private long size;
+    private long received;
+    private List<long[]> ranges;
+    private boolean complete;
+    private int chunkSize;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.taskapp.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+// Ouverture d'un envoi par morceaux : taille totale connue d'avance, SHA-256 facultatif vérifié à la validation
+@Data
+public class UploadSessionRequest {
+    @NotNull(message = "L'ID de la tâche est obligatoire")
+    private Long taskId;
+
+    @NotBlank(message = "Le nom du fichier est obligatoire")
+    private String fileName;
+
+    private String fileType;
+
+    @NotNull
+    @Positive
+    private Long size;
+
+    private String sha256;
+}
@@ -16,6 +16,10 @@ public class Attachment {
     private String filePath;
     private Long fileSize;
 
+    // SHA-256 du contenu (StoredBlob) ; nul pour les fichiers enregistrés avant le stockage par contenu
+    @Column(length = 64)
+    private String contentHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Task task;
 
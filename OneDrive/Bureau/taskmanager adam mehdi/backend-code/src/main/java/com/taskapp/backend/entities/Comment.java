@@ -8,6 +8,10 @@ import java.util.List;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_comment_task_created", columnList = "task_id, created_at, id"),
+        @Index(name = "idx_comment_task_path", columnList = "task_id, path")
+})
 public class Comment {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
@@ -28,4 +32,13 @@ public class Comment {
     private User createdBy;
 
     private LocalDateTime createdAt;
+
+    // Chemin matérialisé (identifiants des ancêtres puis le sien) et profondeur, racine = 0
+    @Column(length = 600)
+    private String path;
+
+    private Integer depth;
+
+    // Réponses dans le sous-fil, toutes profondeurs ; null tant que le rattrapage n'est pas passé
+    private Integer replyCount;
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_at, id")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
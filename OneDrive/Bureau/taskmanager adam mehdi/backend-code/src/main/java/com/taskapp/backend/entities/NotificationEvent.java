@@ -0,0 +1,49 @@
+package com.taskapp.backend.entities;
+
+import com.taskapp.backend.enums.UserRole;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Demande de notification (outbox) enregistrée avec la transaction métier :
+// un rôle ou une liste de destinataires, matérialisée ensuite en lignes Notification par le fan-out.
+@Entity
+@Data
+@Table(name = "notification_event",
+        indexes = @Index(name = "idx_notification_event_pending", columnList = "processed_at, created_at"))
+public class NotificationEvent {
+    public static final int RECIPIENT_IDS_LENGTH = 4000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private UserRole recipientRole;
+
+    // Identifiants séparés par des virgules, utilisé quand recipientRole est nul ; au-delà de la
+    // longueur de la colonne, les destinataires sont répartis sur plusieurs événements
+    @Column(length = RECIPIENT_IDS_LENGTH)
+    private String recipientIds;
+
+    private Long taskId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Nul tant que l'événement n'a pas été distribué
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Distributions échouées ; au-delà du maximum l'événement est écarté (failedAt renseigné)
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int attempts;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,24 @@
+package com.taskapp.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Jeton révoqué (déconnexion) identifié par son claim jti ; la ligne est purgée une fois le jeton expiré.
+@Entity
+@Data
+@Table(name = "revoked_token",
+        indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
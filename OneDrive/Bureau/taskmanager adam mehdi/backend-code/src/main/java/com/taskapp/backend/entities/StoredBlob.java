@@ -0,0 +1,24 @@
+package com.taskapp.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Contenu d'une pièce jointe stocké une seule fois, identifié par son SHA-256 ; refCount compte
+// les Attachment qui le référencent, le fichier est supprimé quand il retombe à zéro.
+@Entity
+@Data
+@Table(name = "stored_blob")
+public class StoredBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -8,9 +8,22 @@ import java.util.Set;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_task_status_id", columnList = "status, id"),
+        @Index(name = "idx_task_assignee_status_id", columnList = "assigned_to_id, status, id"),
+        @Index(name = "idx_task_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_task_assignee_created_id", columnList = "assigned_to_id, created_at, id"),
+        @Index(name = "idx_task_updated_at", columnList = "updated_at")
+})
 public class Task {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Identifiants réservés par blocs (optimiseur pooled) : contrairement à IDENTITY, Hibernate peut
+    // regrouper les INSERT en lots JDBC. Le compteur est recalé sur MAX(id) au démarrage (IdGeneratorAlignment).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_id")
+    @TableGenerator(name = "task_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "task", allocationSize = Task.ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_task_history_task_modified", columnList = "task_id, modified_at, id"))
 public class TaskHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,34 @@
+package com.taskapp.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+// Agrégat du nombre de tâches par statut × priorité × assigné × jour de création.
+// Les valeurs absentes sont normalisées ('' pour statut/priorité, 0 pour "non assigné")
+// afin que la contrainte d'unicité s'applique à chaque case.
+@Entity
+@Data
+@Table(name = "task_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_task_rollup_bucket",
+        columnNames = {"status", "priority", "assignee_id", "bucket_day"}))
+public class TaskRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String status;
+
+    @Column(nullable = false, length = 64)
+    private String priority;
+
+    @Column(name = "assignee_id", nullable = false)
+    private Long assigneeId;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate bucketDay;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
@@ -31,6 +31,11 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private UserRole userRole;
 
+    // Incrémentée uniquement par UserRepository.incrementTokenVersion : les jetons émis avec une
+    // version antérieure sont refusés (changement de rôle, de mot de passe, déconnexion forcée)
+    @Column(name = "token_version", nullable = false, updatable = false, columnDefinition = "int default 0")
+    private int tokenVersion;
+
 
 
     @Override
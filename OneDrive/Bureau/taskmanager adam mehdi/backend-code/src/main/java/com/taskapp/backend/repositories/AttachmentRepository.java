@@ -1,13 +1,28 @@
 package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.Attachment;
+import com.taskapp.backend.repositories.projections.AttachmentFileView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     Page<Attachment> findByTaskId(Long taskId, Pageable pageable);
     Page<Attachment> findByUploadedById(Long userId, Pageable pageable);
+
+    // Fichiers d'un lot de tâches, à libérer après leur suppression (une ligne par pièce jointe)
+    @Query("SELECT a.contentHash AS contentHash, a.filePath AS filePath FROM Attachment a WHERE a.task.id IN :taskIds")
+    List<AttachmentFileView> findFilesByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM Attachment a WHERE a.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
\ No newline at end of file
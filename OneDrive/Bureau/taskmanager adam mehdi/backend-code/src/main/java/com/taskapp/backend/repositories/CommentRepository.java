@@ -1,17 +1,119 @@
 package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.Comment;
+import com.taskapp.backend.repositories.projections.CommentExportView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTaskIdAndParentIsNull(Long taskId);
 
+    // Tous les commentaires d'une tâche, l'arbre est reconstruit en mémoire
+    List<Comment> findByTaskIdOrderByCreatedAtAscIdAsc(Long taskId);
+
+    // Tous les commentaires d'une tâche en ordre de parcours (chaque parent précède ses réponses)
+    List<Comment> findByTaskIdOrderByPathAsc(Long taskId);
+
+    // Tous les commentaires d'une tâche par id : une réponse a toujours un id supérieur à son parent
+    List<Comment> findByTaskIdOrderByIdAsc(Long taskId);
+
+    // Des commentaires sans chemin rendent l'ordre par chemin incomplet pour la tâche
+    boolean existsByTaskIdAndPathIsNull(Long taskId);
+
+    long countByPathIsNull();
+
+    // Une page de fils racines avec toutes leurs réponses, en une requête triée par chemin
+    @Query(value = "SELECT c.* FROM comment c "
+            + "JOIN (SELECT r.path FROM comment r WHERE r.task_id = :taskId AND r.parent_id IS NULL "
+            + "      ORDER BY r.path LIMIT :limit OFFSET :offset) roots ON c.path LIKE CONCAT(roots.path, '%') "
+            + "WHERE c.task_id = :taskId ORDER BY c.path", nativeQuery = true)
+    List<Comment> findThreads(@Param("taskId") Long taskId, @Param("offset") long offset, @Param("limit") int limit);
+
+    long countByTaskIdAndParentIsNull(Long taskId);
+
+    // Fils racines par curseur sur le chemin
+    Window<Comment> findByTaskIdAndParentIsNull(Long taskId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Réponses d'un commentaire (tout son sous-fil) par curseur sur le chemin
+    Window<Comment> findByTaskIdAndPathStartingWithAndIdNot(Long taskId, String pathPrefix, Long id,
+                                                            ScrollPosition position, Sort sort, Limit limit);
+
+    // Les :limit premières réponses de chaque fil racine compris entre :firstRoot et :lastRoot.
+    // SUBSTRING(path, 1, 9) est le segment de la racine (voir CommentPaths.SEGMENT_LENGTH) : les bornes ne
+    // comparent que des segments de même longueur en [0-9a-z/], dont l'ordre ne dépend pas de la collation.
+    @Query(value = "SELECT c.* FROM comment c WHERE c.id IN ("
+            + "  SELECT x.id FROM (SELECT r.id, ROW_NUMBER() OVER (PARTITION BY SUBSTRING(r.path, 1, 9) ORDER BY r.path) AS rn"
+            + "    FROM comment r WHERE r.task_id = :taskId AND r.path > :firstRoot AND SUBSTRING(r.path, 1, 9) <= :lastRoot"
+            + "    AND r.parent_id IS NOT NULL) x"
+            + "  WHERE x.rn <= :limit) "
+            + "ORDER BY c.path", nativeQuery = true)
+    List<Comment> findReplyPreviews(@Param("taskId") Long taskId, @Param("firstRoot") String firstRoot,
+                                    @Param("lastRoot") String lastRoot, @Param("limit") int limit);
+
+    // NULL tant que le rattrapage n'est pas passé : compté à partir de zéro pour ne pas perdre la réponse
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = COALESCE(c.replyCount, 0) + :delta WHERE c.id IN :ids")
+    int addToReplyCounts(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    @Query("SELECT MAX(c.depth) FROM Comment c WHERE c.task.id = :taskId AND c.path LIKE CONCAT(:pathPrefix, '%')")
+    Integer findMaxDepthUnder(@Param("taskId") Long taskId, @Param("pathPrefix") String pathPrefix);
+
+    // Suppression d'un niveau d'un sous-fil ; appelée du plus profond au moins profond pour respecter parent_id
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.task.id = :taskId AND c.path LIKE CONCAT(:pathPrefix, '%') AND c.depth = :depth")
+    int deleteSubtreeLevel(@Param("taskId") Long taskId, @Param("pathPrefix") String pathPrefix, @Param("depth") int depth);
+
+    // Suppression de tous les commentaires d'un lot de tâches : les liens parent sont d'abord
+    // coupés pour que l'ordre des lignes supprimées n'enfreigne pas la clé étrangère parent_id
+    @Modifying
+    @Query("UPDATE Comment c SET c.parent = null WHERE c.task.id IN :taskIds AND c.parent IS NOT NULL")
+    int detachRepliesByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT DISTINCT c.task.id FROM Comment c WHERE c.replyCount IS NULL")
+    List<Long> findTaskIdsWithoutReplyCounts();
+
+    // Rattrapage des chemins : commentaires sans chemin dont le parent en a déjà un, sans dépasser
+    // :maxDepth (au-delà, le chemin ne tiendrait plus dans la colonne et le commentaire reste sans chemin)
+    @Query("SELECT c FROM Comment c LEFT JOIN FETCH c.parent p "
+            + "WHERE c.path IS NULL AND (c.parent IS NULL OR (p.path IS NOT NULL AND p.depth < :maxDepth)) ORDER BY c.id")
+    List<Comment> findPathBackfillBatch(@Param("maxDepth") int maxDepth, Pageable pageable);
+
     Page<Comment> findByTaskId(Long taskId, Pageable pageable);
     Page<Comment> findByCreatedById(Long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    // Pagination par clé (createdAt, id) sans requête COUNT ; les lignes sans date sont parcourues à part, par id
+    Window<Comment> findByTaskIdAndCreatedAtIsNotNull(Long taskId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Comment> findByTaskIdAndCreatedAtIsNull(Long taskId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Export : lecture en flux (curseur côté serveur), toutes tâches si taskId est null
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id AS id, c.task.id AS taskId, p.id AS parentId, u.id AS createdById, "
+            + "c.depth AS depth, c.content AS content, c.createdAt AS createdAt "
+            + "FROM Comment c LEFT JOIN c.parent p LEFT JOIN c.createdBy u "
+            + "WHERE (:taskId IS NULL OR c.task.id = :taskId) ORDER BY c.id")
+    Stream<CommentExportView> streamForExport(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,40 @@
+package com.taskapp.backend.repositories;
+
+import com.taskapp.backend.entities.NotificationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    // Réserve l'événement : 0 s'il a déjà été traité par un autre worker ou écarté
+    @Modifying
+    @Query("UPDATE NotificationEvent e SET e.processedAt = :now WHERE e.id = :id AND e.processedAt IS NULL AND e.failedAt IS NULL")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Événements ni distribués ni écartés
+    @Query("SELECT e.id FROM NotificationEvent e WHERE e.processedAt IS NULL AND e.failedAt IS NULL AND e.createdAt < :before ORDER BY e.createdAt")
+    List<Long> findPendingIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Compte un échec ; l'événement est écarté (file des lettres mortes) à la dernière tentative
+    @Modifying
+    @Query("UPDATE NotificationEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+            "e.failedAt = CASE WHEN e.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END " +
+            "WHERE e.id = :id AND e.processedAt IS NULL")
+    int recordFailure(@Param("id") Long id, @Param("error") String error, @Param("maxAttempts") int maxAttempts,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT e.id FROM NotificationEvent e WHERE e.processedAt < :before")
+    List<Long> findProcessedIdsBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM NotificationEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
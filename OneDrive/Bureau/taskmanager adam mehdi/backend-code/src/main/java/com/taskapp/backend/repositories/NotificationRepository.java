@@ -1,14 +1,64 @@
 package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.Notification;
+import com.taskapp.backend.repositories.projections.UserUnreadCountView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     Page<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, boolean isRead, Pageable pageable);
     long countByUserIdAndIsRead(Long userId, boolean isRead);
-}
\ No newline at end of file
+    long countByUserId(Long userId);
+
+    // Pagination par clé (createdAt, id) sans requête COUNT ; les lignes sans date sont parcourues à part, par id
+    Window<Notification> findByUserIdAndCreatedAtIsNotNull(Long userId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Notification> findByUserIdAndCreatedAtIsNull(Long userId, ScrollPosition position, Sort sort, Limit limit);
+    Window<Notification> findByUserIdAndIsReadAndCreatedAtIsNotNull(Long userId, boolean isRead, ScrollPosition position, Sort sort, Limit limit);
+    Window<Notification> findByUserIdAndIsReadAndCreatedAtIsNull(Long userId, boolean isRead, ScrollPosition position, Sort sort, Limit limit);
+
+    // Opérations en masse : une seule instruction, le nombre de lignes touchées est renvoyé
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    // 1 si la notification vient de passer à lue, 0 si elle l'était déjà (appel concurrent compris)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markAsReadIfUnread(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.id IN :ids AND n.isRead = false")
+    int markAsRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Destinataires des notifications d'un lot de tâches, avec le nombre de non lues de chacun
+    @Query("SELECT n.user.id AS userId, SUM(CASE WHEN n.isRead = false THEN 1 ELSE 0 END) AS unread " +
+            "FROM Notification n WHERE n.task.id IN :taskIds GROUP BY n.user.id")
+    List<UserUnreadCountView> countUnreadByUserForTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead")
+    int deleteByUserIdAndIsRead(@Param("userId") Long userId, @Param("isRead") boolean isRead);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead AND n.createdAt < :before")
+    int deleteOlderThan(@Param("userId") Long userId, @Param("isRead") boolean isRead, @Param("before") LocalDateTime before);
+}
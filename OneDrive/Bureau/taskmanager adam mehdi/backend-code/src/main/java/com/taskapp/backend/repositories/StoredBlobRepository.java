@@ -0,0 +1,37 @@
+package com.taskapp.backend.repositories;
+
+import com.taskapp.backend.entities.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Crée le blob avec une référence, ou ajoute une référence s'il existe déjà
+    @Modifying
+    @Query(value = "INSERT INTO stored_blob (hash, size, ref_count, created_at) VALUES (:hash, :size, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    // Lecture verrouillante : attend qu'une transaction qui a pris une référence soit terminée
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.hash = :hash")
+    Optional<StoredBlob> findForUpdate(@Param("hash") String hash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash")
+    int release(@Param("hash") String hash);
+
+    // 1 si la dernière référence vient d'être retirée et que le fichier peut être supprimé
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
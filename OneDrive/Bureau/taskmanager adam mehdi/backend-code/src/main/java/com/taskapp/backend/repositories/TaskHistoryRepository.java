@@ -1,14 +1,47 @@
 package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.TaskHistory;
+import com.taskapp.backend.repositories.projections.TaskHistoryExportView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.stream.Stream;
+
 @Repository
 public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
     Page<TaskHistory> findByTaskId(Long taskId, Pageable pageable);
     Page<TaskHistory> findByModifiedById(Long userId, Pageable pageable);
     Page<TaskHistory> findByTaskIdOrderByModifiedAtDesc(Long taskId, Pageable pageable);
-}
\ No newline at end of file
+
+    // Pagination par clé (modifiedAt, id) sans requête COUNT ; les lignes sans date sont parcourues à part, par id
+    Window<TaskHistory> findByTaskIdAndModifiedAtIsNotNull(Long taskId, ScrollPosition position, Sort sort, Limit limit);
+    Window<TaskHistory> findByTaskIdAndModifiedAtIsNull(Long taskId, ScrollPosition position, Sort sort, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskHistory h WHERE h.task.id IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    // Export : lecture en flux (curseur côté serveur), toutes tâches si taskId est null
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT h.id AS id, h.task.id AS taskId, m.id AS modifiedById, h.field AS field, "
+            + "h.oldValue AS oldValue, h.newValue AS newValue, h.modifiedAt AS modifiedAt "
+            + "FROM TaskHistory h LEFT JOIN h.modifiedBy m "
+            + "WHERE (:taskId IS NULL OR h.task.id = :taskId) ORDER BY h.id")
+    Stream<TaskHistoryExportView> streamForExport(@Param("taskId") Long taskId);
+}
@@ -1,14 +1,83 @@
 package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.repositories.projections.StatusCountView;
+import com.taskapp.backend.repositories.projections.TaskLabelView;
+import com.taskapp.backend.repositories.projections.TaskTextView;
+import com.taskapp.backend.repositories.projections.TaskTitleView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     Page<Task> findByAssignedToId(Long userId, Pageable pageable);
     Page<Task> findByCreatedById(Long userId, Pageable pageable);
-}
\ No newline at end of file
+    List<Task> findByAssignedToId(Long userId);
+
+    // Colonnes Kanban paginées par curseur sur l'id (pas d'OFFSET ni de COUNT)
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.id > :afterId ORDER BY t.id ASC")
+    List<Task> findKanbanColumn(@Param("status") String status, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.status = :status AND t.assignedTo.id = :userId AND t.id > :afterId ORDER BY t.id ASC")
+    List<Task> findKanbanColumnByAssignee(@Param("status") String status, @Param("userId") Long userId,
+                                          @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t.status AS status, COUNT(t) AS total FROM Task t GROUP BY t.status")
+    List<StatusCountView> countGroupByStatus();
+
+    @Query("SELECT t.status AS status, COUNT(t) AS total FROM Task t WHERE t.assignedTo.id = :userId GROUP BY t.status")
+    List<StatusCountView> countGroupByStatusForAssignee(@Param("userId") Long userId);
+
+    // Étiquettes d'un lot de tâches en une seule requête
+    @Query("SELECT t.id AS taskId, l.id AS id, l.name AS name, l.color AS color FROM Task t JOIN t.labels l WHERE t.id IN :taskIds")
+    List<TaskLabelView> findLabelsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    // Titres d'un lot de tâches (notifications)
+    @Query("SELECT t.id AS id, t.title AS title FROM Task t WHERE t.id IN :ids")
+    List<TaskTitleView> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Alimentation de l'index de recherche plein texte
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.updatedAt AS updatedAt FROM Task t WHERE t.id > :afterId ORDER BY t.id ASC")
+    List<TaskTextView> findTextAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id > :afterId ORDER BY t.id ASC")
+    List<Long> findIdsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Opérations groupées : une instruction par modification pour tout le lot
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :updatedAt WHERE t.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.assignedTo = :assignee, t.updatedAt = :updatedAt WHERE t.id IN :ids")
+    int updateAssignee(@Param("ids") Collection<Long> ids, @Param("assignee") User assignee,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE task_id IN (:taskIds) AND label_id IN (:labelIds)", nativeQuery = true)
+    int deleteLabelLinks(@Param("taskIds") Collection<Long> taskIds, @Param("labelIds") Collection<Long> labelIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE task_id IN (:taskIds)", nativeQuery = true)
+    int deleteLabelLinksByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    // Dernière instruction de la suppression en masse : le contexte de persistance est vidé
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.updatedAt AS updatedAt FROM Task t WHERE t.updatedAt >= :since")
+    List<TaskTextView> findTextUpdatedSince(@Param("since") LocalDateTime since);
+}
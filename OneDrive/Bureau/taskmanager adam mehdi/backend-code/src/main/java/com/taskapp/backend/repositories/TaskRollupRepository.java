@@ -0,0 +1,52 @@
+package com.taskapp.backend.repositories;
+
+import com.taskapp.backend.entities.TaskRollup;
+import com.taskapp.backend.repositories.projections.AssigneeCountView;
+import com.taskapp.backend.repositories.projections.BucketCountView;
+import com.taskapp.backend.repositories.projections.DayCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskRollupRepository extends JpaRepository<TaskRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO task_rollup (status, priority, assignee_id, bucket_day, task_count) " +
+            "VALUES (:status, :priority, :assigneeId, :day, :delta) " +
+            "ON DUPLICATE KEY UPDATE task_count = task_count + :delta", nativeQuery = true)
+    int addToBucket(@Param("status") String status, @Param("priority") String priority,
+                    @Param("assigneeId") Long assigneeId, @Param("day") LocalDate day, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_rollup", nativeQuery = true)
+    int deleteAllBuckets();
+
+    @Modifying
+    @Query(value = "INSERT INTO task_rollup (status, priority, assignee_id, bucket_day, task_count) " +
+            "SELECT COALESCE(status, ''), COALESCE(priority, ''), COALESCE(assigned_to_id, 0), " +
+            "COALESCE(DATE(created_at), '1970-01-01'), COUNT(*) FROM task GROUP BY 1, 2, 3, 4", nativeQuery = true)
+    int rebuildFromTasks();
+
+    @Query("SELECT COALESCE(SUM(r.taskCount), 0) FROM TaskRollup r")
+    long sumAll();
+
+    @Query("SELECT r.status AS bucket, SUM(r.taskCount) AS total FROM TaskRollup r GROUP BY r.status HAVING SUM(r.taskCount) > 0")
+    List<BucketCountView> sumByStatus();
+
+    @Query("SELECT r.priority AS bucket, SUM(r.taskCount) AS total FROM TaskRollup r GROUP BY r.priority HAVING SUM(r.taskCount) > 0")
+    List<BucketCountView> sumByPriority();
+
+    @Query("SELECT r.assigneeId AS assigneeId, SUM(r.taskCount) AS total FROM TaskRollup r WHERE r.assigneeId <> 0 " +
+            "GROUP BY r.assigneeId HAVING SUM(r.taskCount) > 0")
+    List<AssigneeCountView> sumByAssignee();
+
+    @Query("SELECT r.bucketDay AS day, SUM(r.taskCount) AS total FROM TaskRollup r WHERE r.bucketDay > :since " +
+            "GROUP BY r.bucketDay HAVING SUM(r.taskCount) > 0")
+    List<DayCountView> sumByDaySince(@Param("since") LocalDate since);
+}
@@ -2,13 +2,17 @@ package com.taskapp.backend.repositories;
 
 import com.taskapp.backend.entities.User;
 import com.taskapp.backend.enums.UserRole;
+import com.taskapp.backend.repositories.projections.UserNameView;
+import com.taskapp.backend.repositories.projections.UserTokenVersionView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 @Repository
@@ -22,4 +26,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Recherche paginée par nom ou email, avec filtre optionnel par rôle
     @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.userRole = :role) AND (LOWER(u.name) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
     Page<User> searchUsers(@Param("search") String search, @Param("role") UserRole role, Pageable pageable);
+
+    // Noms d'un lot d'utilisateurs, sans charger les entités
+    @Query("SELECT u.id AS id, u.email AS email, u.firstName AS firstName, u.lastName AS lastName FROM User u WHERE u.id IN :ids")
+    List<UserNameView> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.userRole = :role")
+    List<Long> findIdsByUserRole(@Param("role") UserRole role);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Versions de jeton de tous les utilisateurs, pour TokenVersionRegistry
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u")
+    List<UserTokenVersionView> findTokenVersions();
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Integer findTokenVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
@@ -0,0 +1,6 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface AssigneeCountView {
+    Long getAssigneeId();
+    Long getTotal();
+}
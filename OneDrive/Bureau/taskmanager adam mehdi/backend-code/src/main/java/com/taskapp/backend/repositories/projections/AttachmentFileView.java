@@ -0,0 +1,6 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface AttachmentFileView {
+    String getContentHash();
+    String getFilePath();
+}
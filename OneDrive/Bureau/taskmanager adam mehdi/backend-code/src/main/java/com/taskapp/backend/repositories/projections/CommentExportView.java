@@ -0,0 +1,13 @@
+package com.taskapp.backend.repositories.projections;
+
+import java.time.LocalDateTime;
+
+public interface CommentExportView {
+    Long getId();
+    Long getTaskId();
+    Long getParentId();
+    Long getCreatedById();
+    Integer getDepth();
+    String getContent();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,8 @@
+package com.taskapp.backend.repositories.projections;
+
+import java.time.LocalDate;
+
+public interface DayCountView {
+    LocalDate getDay();
+    Long getTotal();
+}
@@ -0,0 +1,13 @@
+package com.taskapp.backend.repositories.projections;
+
+import java.time.LocalDateTime;
+
+public interface TaskHistoryExportView {
+    Long getId();
+    Long getTaskId();
+    Long getModifiedById();
+    String getField();
+    String getOldValue();
+    String getNewValue();
+    LocalDateTime getModifiedAt();
+}
@@ -0,0 +1,8 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface TaskLabelView {
+    Long getTaskId();
+    Long getId();
+    String getName();
+    String getColor();
+}
@@ -0,0 +1,10 @@
+package com.taskapp.backend.repositories.projections;
+
+import java.time.LocalDateTime;
+
+public interface TaskTextView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,8 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface UserNameView {
+    Long getId();
+    String getEmail();
+    String getFirstName();
+    String getLastName();
+}
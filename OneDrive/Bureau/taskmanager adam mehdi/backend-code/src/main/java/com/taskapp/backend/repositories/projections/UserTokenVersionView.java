@@ -0,0 +1,6 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface UserTokenVersionView {
+    Long getId();
+    Integer getTokenVersion();
+}
@@ -0,0 +1,6 @@
+package com.taskapp.backend.repositories.projections;
+
+public interface UserUnreadCountView {
+    Long getUserId();
+    long getUnread();
+}
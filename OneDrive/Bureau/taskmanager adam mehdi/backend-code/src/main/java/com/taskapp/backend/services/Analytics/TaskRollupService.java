@@ -0,0 +1,11 @@
+package com.taskapp.backend.services.Analytics;
+
+import com.taskapp.backend.services.Task.TaskSnapshot;
+
+import java.util.Map;
+
+public interface TaskRollupService {
+    void onTaskChanged(TaskSnapshot before, TaskSnapshot after);
+    long rebuild();
+    Map<String, Object> getTaskAnalytics(String timeFrame);
+}
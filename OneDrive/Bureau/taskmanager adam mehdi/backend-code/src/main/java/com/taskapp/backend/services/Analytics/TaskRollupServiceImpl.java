@@ -0,0 +1,155 @@
+package com.taskapp.backend.services.Analytics;
+
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.TaskRollupRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.AssigneeCountView;
+import com.taskapp.backend.repositories.projections.BucketCountView;
+import com.taskapp.backend.repositories.projections.DayCountView;
+import com.taskapp.backend.services.Task.TaskSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class TaskRollupServiceImpl implements TaskRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskRollupServiceImpl.class);
+
+    // Jour utilisé pour les tâches sans date de création (exclu de toutes les périodes)
+    private static final LocalDate UNKNOWN_DAY = LocalDate.of(1970, 1, 1);
+
+    private final TaskRollupRepository taskRollupRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Appelé dans la transaction d'écriture de la tâche : l'agrégat est validé ou annulé avec elle
+    @Override
+    @Transactional
+    public void onTaskChanged(TaskSnapshot before, TaskSnapshot after) {
+        if (before != null && after != null && sameBucket(before, after)) {
+            return;
+        }
+        if (before != null) {
+            addToBucket(before, -1);
+        }
+        if (after != null) {
+            addToBucket(after, 1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public long rebuild() {
+        taskRollupRepository.deleteAllBuckets();
+        int buckets = taskRollupRepository.rebuildFromTasks();
+        logger.info("Task rollups rebuilt: {} buckets", buckets);
+        return buckets;
+    }
+
+    // Premier démarrage : construire les agrégats à partir des tâches existantes.
+    // Appel interne (hors proxy) : la transaction de rebuild() est ouverte explicitement.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (taskRollupRepository.count() == 0 && taskRepository.count() > 0) {
+            transactionTemplate.execute(status -> rebuild());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTaskAnalytics(String timeFrame) {
+        Map<String, Object> analytics = new HashMap<>();
+
+        // Statistiques générales
+        analytics.put("totalTasks", taskRollupRepository.sumAll());
+
+        // Tâches par statut et par priorité
+        analytics.put("tasksByStatus", toCountMap(taskRollupRepository.sumByStatus()));
+        analytics.put("tasksByPriority", toCountMap(taskRollupRepository.sumByPriority()));
+
+        // Tâches par utilisateur assigné (un seul chargement des utilisateurs concernés)
+        List<AssigneeCountView> byAssignee = taskRollupRepository.sumByAssignee();
+        Map<Long, User> users = userRepository.findAllById(byAssignee.stream().map(AssigneeCountView::getAssigneeId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, Long> tasksByUser = new HashMap<>();
+        for (AssigneeCountView row : byAssignee) {
+            User user = users.get(row.getAssigneeId());
+            if (user != null) {
+                tasksByUser.merge(user.getFirstName() + " " + user.getLastName(), row.getTotal(), Long::sum);
+            }
+        }
+        analytics.put("tasksByUser", tasksByUser);
+
+        // Tâches créées par jour/mois selon la période
+        LocalDate startDate;
+        DateTimeFormatter formatter;
+        if ("week".equals(timeFrame)) {
+            startDate = LocalDate.now().minusWeeks(1);
+            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        } else if ("month".equals(timeFrame)) {
+            startDate = LocalDate.now().minusMonths(1);
+            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        } else if ("quarter".equals(timeFrame)) {
+            startDate = LocalDate.now().minusMonths(3);
+            formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+        } else {
+            startDate = LocalDate.now().minusYears(10);
+            formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+        }
+        Map<String, Long> tasksByDate = new HashMap<>();
+        for (DayCountView row : taskRollupRepository.sumByDaySince(startDate)) {
+            tasksByDate.merge(row.getDay().format(formatter), row.getTotal(), Long::sum);
+        }
+        analytics.put("tasksByDate", tasksByDate);
+        analytics.put("timeFrame", timeFrame != null ? timeFrame : "all");
+
+        return analytics;
+    }
+
+    private void addToBucket(TaskSnapshot snapshot, long delta) {
+        taskRollupRepository.addToBucket(
+                snapshot.status() != null ? snapshot.status() : "",
+                snapshot.priority() != null ? snapshot.priority() : "",
+                snapshot.assigneeId() != null ? snapshot.assigneeId() : 0L,
+                snapshot.createdAt() != null ? snapshot.createdAt().toLocalDate() : UNKNOWN_DAY,
+                delta);
+    }
+
+    private boolean sameBucket(TaskSnapshot a, TaskSnapshot b) {
+        return Objects.equals(a.status(), b.status())
+                && Objects.equals(a.priority(), b.priority())
+                && Objects.equals(a.assigneeId(), b.assigneeId())
+                && Objects.equals(
+                        a.createdAt() != null ? a.createdAt().toLocalDate() : null,
+                        b.createdAt() != null ? b.createdAt().toLocalDate() : null);
+    }
+
+    private Map<String, Long> toCountMap(List<BucketCountView> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (BucketCountView row : rows) {
+            if (!row.getBucket().isEmpty()) {
+                counts.put(row.getBucket(), row.getTotal());
+            }
+        }
+        return counts;
+    }
+}
@@ -4,10 +4,21 @@ import com.taskapp.backend.dto.AttachmentDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
 
 public interface AttachmentService {
     AttachmentDTO uploadAttachment(MultipartFile file, Long taskId, Long uploadedById) throws IOException;
+    AttachmentDTO attachStagedFile(Path staged, String contentHash, String fileName, String fileType,
+                                   Long taskId, Long uploadedById) throws IOException;
     AttachmentDTO getAttachmentById(Long id);
     Page<AttachmentDTO> getAttachmentsByTask(Long taskId, int page, int size);
     void deleteAttachment(Long id);
+    AttachmentContent getAttachmentContent(Long id);
+    // Vide tant que la miniature est en cours de génération
+    Optional<AttachmentContent> getThumbnailContent(Long id, int size);
+
+    // Fichier à servir pour un téléchargement ; contentHash est nul pour les fichiers antérieurs au stockage par contenu
+    record AttachmentContent(Path path, String fileName, String fileType, long size, String contentHash) {
+    }
 }
\ No newline at end of file
@@ -8,21 +8,25 @@ import com.taskapp.backend.repositories.TaskRepository;
 import com.taskapp.backend.repositories.UserRepository;
 import com.taskapp.backend.dto.AttachmentDTO;
 import com.taskapp.backend.exceptions.ResourceNotFoundException;
+import com.taskapp.backend.services.Projection.DtoAssembler;
+import com.taskapp.backend.services.Storage.BlobStore;
+import com.taskapp.backend.Utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -31,69 +35,67 @@ public class AttachmentServiceImpl implements AttachmentService {
     private final AttachmentRepository attachmentRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private final DtoAssembler dtoAssembler;
+    private final BlobStore blobStore;
+    private final ThumbnailService thumbnailService;
 
     @Override
     @Transactional
     public AttachmentDTO uploadAttachment(MultipartFile file, Long taskId, Long uploadedById) throws IOException {
-        // Créer le répertoire de téléchargement s'il n'existe pas
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tâche non trouvée"));
+        User uploadedBy = userRepository.findById(uploadedById)
+                .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
 
-        // Générer un nom de fichier unique
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Chemin complet du fichier
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        
-        // Enregistrer le fichier sur le disque
-        Files.copy(file.getInputStream(), filePath);
+        // Ranger le contenu sous son empreinte (un fichier identique déjà stocké est réutilisé)
+        BlobStore.StoredContent content = blobStore.store(file);
+        return attach(content, file.getOriginalFilename(), file.getContentType(), task, uploadedBy);
+    }
 
-        // Créer l'entité Attachment
-        Attachment attachment = new Attachment();
-        attachment.setFileName(originalFilename);
-        attachment.setFileType(file.getContentType());
-        attachment.setFilePath(filePath.toString());
-        attachment.setFileSize(file.getSize());
-        attachment.setUploadedAt(LocalDateTime.now());
-        
-        // Associer à la tâche
+    @Override
+    @Transactional
+    public AttachmentDTO attachStagedFile(Path staged, String contentHash, String fileName, String fileType,
+                                          Long taskId, Long uploadedById) throws IOException {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tâche non trouvée"));
-        attachment.setTask(task);
-        
-        // Associer à l'utilisateur qui a téléchargé
         User uploadedBy = userRepository.findById(uploadedById)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
+        BlobStore.StoredContent content = blobStore.storeStaged(staged, contentHash);
+        return attach(content, fileName, fileType, task, uploadedBy);
+    }
+
+    private AttachmentDTO attach(BlobStore.StoredContent content, String fileName, String fileType, Task task, User uploadedBy) {
+        // Créer l'entité Attachment
+        Attachment attachment = new Attachment();
+        attachment.setFileName(fileName);
+        attachment.setFileType(fileType);
+        attachment.setFilePath(content.path().toString());
+        attachment.setContentHash(content.hash());
+        attachment.setFileSize(content.size());
+        attachment.setUploadedAt(LocalDateTime.now());
+        attachment.setTask(task);
         attachment.setUploadedBy(uploadedBy);
-        
+
         // Sauvegarder l'attachment dans la base de données
         Attachment savedAttachment = attachmentRepository.save(attachment);
+        // Miniatures générées en arrière-plan, une fois la pièce jointe validée
+        thumbnailService.generateAfterCommit(content.hash(), fileType);
         
-        return convertToDTO(savedAttachment);
+        return dtoAssembler.attachment(savedAttachment);
     }
 
     @Override
     public AttachmentDTO getAttachmentById(Long id) {
         Attachment attachment = attachmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pièce jointe non trouvée avec l'id: " + id));
-        return convertToDTO(attachment);
+        return dtoAssembler.attachment(attachment);
     }
 
     @Override
     public Page<AttachmentDTO> getAttachmentsByTask(Long taskId, int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Attachment> attachmentPage = attachmentRepository.findByTaskId(taskId, pageRequest);
-        return attachmentPage.map(this::convertToDTO);
+        return dtoAssembler.page(attachmentPage, dtoAssembler::attachments);
     }
 
     @Override
@@ -102,33 +104,79 @@ public class AttachmentServiceImpl implements AttachmentService {
         Attachment attachment = attachmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pièce jointe non trouvée avec l'id: " + id));
         
-        // Supprimer le fichier physique
-        try {
-            Path filePath = Paths.get(attachment.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Logger l'erreur mais continuer la suppression de l'enregistrement
-            System.err.println("Erreur lors de la suppression du fichier: " + e.getMessage());
+        // Le blob n'est supprimé qu'avec sa dernière référence, après le commit
+        if (attachment.getContentHash() != null) {
+            blobStore.releaseAfterCommit(attachment.getContentHash());
+        } else {
+            try {
+                Files.deleteIfExists(Paths.get(attachment.getFilePath()));
+            } catch (IOException e) {
+                // Logger l'erreur mais continuer la suppression de l'enregistrement
+                System.err.println("Erreur lors de la suppression du fichier: " + e.getMessage());
+            }
         }
         
         // Supprimer l'enregistrement de la base de données
         attachmentRepository.delete(attachment);
     }
 
-    private AttachmentDTO convertToDTO(Attachment attachment) {
-        AttachmentDTO dto = new AttachmentDTO();
-        dto.setId(attachment.getId());
-        dto.setFileName(attachment.getFileName());
-        dto.setFileType(attachment.getFileType());
-        dto.setFileSize(attachment.getFileSize());
-        dto.setTaskId(attachment.getTask().getId());
-        
-        if (attachment.getUploadedBy() != null) {
-            dto.setUploadedById(attachment.getUploadedBy().getId());
-            dto.setUploadedByName(attachment.getUploadedBy().getUsername()); // Assurez-vous que l'entité User a un champ username
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentContent getAttachmentContent(Long id) {
+        Attachment attachment = findReadableAttachment(id);
+        Path path = attachment.getContentHash() != null
+                ? blobStore.pathOf(attachment.getContentHash())
+                : Paths.get(attachment.getFilePath());
+        if (!Files.isReadable(path)) {
+            throw new ResourceNotFoundException("Fichier de la pièce jointe introuvable: " + id);
         }
-        
-        dto.setUploadedAt(attachment.getUploadedAt());
-        return dto;
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("Fichier de la pièce jointe introuvable: " + id);
+        }
+        return new AttachmentContent(path, attachment.getFileName(), attachment.getFileType(), size,
+                attachment.getContentHash());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AttachmentContent> getThumbnailContent(Long id, int size) {
+        Attachment attachment = findReadableAttachment(id);
+        if (!thumbnailService.canGenerate(attachment.getContentHash(), attachment.getFileType())) {
+            throw new ResourceNotFoundException("Aucune miniature disponible pour la pièce jointe: " + id);
+        }
+        int variantSize = thumbnailService.variantSize(size);
+        return thumbnailService.find(attachment.getContentHash(), attachment.getFileType(), variantSize)
+                .flatMap(path -> {
+                    try {
+                        return Optional.of(new AttachmentContent(path, thumbnailName(attachment.getFileName()),
+                                "image/jpeg", Files.size(path), attachment.getContentHash() + "-" + variantSize));
+                    } catch (IOException e) {
+                        // Variante supprimée avec son blob entre-temps
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private Attachment findReadableAttachment(Long id) {
+        Attachment attachment = attachmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pièce jointe non trouvée avec l'id: " + id));
+        // Même règle que pour la tâche : un employé ne télécharge que les pièces jointes de ses tâches
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        Long userId = SecurityUtils.currentUserId(auth);
+        Task task = attachment.getTask();
+        if (!isAdmin && (task.getAssignedTo() == null || userId == null || task.getAssignedTo().getId() != userId)) {
+            throw new AccessDeniedException("Vous ne pouvez télécharger que les pièces jointes de vos propres tâches");
+        }
+        return attachment;
+    }
+
+    private static String thumbnailName(String fileName) {
+        String base = fileName != null ? fileName : "attachment";
+        int extension = base.lastIndexOf('.');
+        return (extension > 0 ? base.substring(0, extension) : base) + "-thumbnail.jpg";
     }
-}
\ No newline at end of file
+}
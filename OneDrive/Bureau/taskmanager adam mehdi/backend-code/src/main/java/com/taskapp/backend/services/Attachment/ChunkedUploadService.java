@@ -0,0 +1,16 @@
+package com.taskapp.backend.services.Attachment;
+
+import com.taskapp.backend.dto.AttachmentDTO;
+import com.taskapp.backend.dto.UploadSessionDTO;
+import com.taskapp.backend.dto.UploadSessionRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ChunkedUploadService {
+    UploadSessionDTO open(UploadSessionRequest request) throws IOException;
+    UploadSessionDTO writeChunk(String uploadId, long offset, long length, InputStream body) throws IOException;
+    UploadSessionDTO getStatus(String uploadId);
+    AttachmentDTO commit(String uploadId) throws IOException;
+    void abort(String uploadId) throws IOException;
+}
@@ -0,0 +1,363 @@
+package com.taskapp.backend.services.Attachment;
+
+import com.taskapp.backend.Utils.SecurityUtils;
+import com.taskapp.backend.dto.AttachmentDTO;
+import com.taskapp.backend.dto.UploadSessionDTO;
+import com.taskapp.backend.dto.UploadSessionRequest;
+import com.taskapp.backend.exceptions.ResourceNotFoundException;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.services.Storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Envoi de fichiers par morceaux, au-delà de la limite multipart : ouverture avec la taille totale,
+ * morceaux PUT à leur position (dans n'importe quel ordre, en parallèle), puis validation.
+ * Chaque morceau est écrit directement à sa position dans un fichier préalloué de la zone de transit
+ * (FileChannel.transferFrom, sans tampon applicatif) ; les plages reçues sont suivies pour la reprise.
+ * À la validation, le SHA-256 est vérifié et le fichier est rangé dans le BlobStore.
+ * Les sessions sont en mémoire : une session inactive au-delà du TTL est supprimée avec son fichier.
+ * Les morceaux s'écrivent en parallèle sous le verrou partagé de la session ; la validation et
+ * l'abandon prennent son verrou exclusif, et attendent donc la fin des écritures en cours.
+ */
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadServiceImpl.class);
+    private static final String SESSION_SUFFIX = ".upload";
+
+    private final AttachmentService attachmentService;
+    private final TaskRepository taskRepository;
+    private final BlobStore blobStore;
+    private final long maxFileSize;
+    private final int chunkSize;
+    private final long sessionTtlMillis;
+    private final int maxSessions;
+    private final int maxSessionsPerUser;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadServiceImpl(AttachmentService attachmentService,
+                                    TaskRepository taskRepository,
+                                    BlobStore blobStore,
+                                    @Value("${attachments.upload.max-file-size:2147483648}") long maxFileSize,
+                                    @Value("${attachments.upload.chunk-size:8388608}") int chunkSize,
+                                    @Value("${attachments.upload.session-ttl-ms:86400000}") long sessionTtlMillis,
+                                    @Value("${attachments.upload.max-sessions:1000}") int maxSessions,
+                                    @Value("${attachments.upload.max-sessions-per-user:10}") int maxSessionsPerUser) {
+        this.attachmentService = attachmentService;
+        this.taskRepository = taskRepository;
+        this.blobStore = blobStore;
+        this.maxFileSize = maxFileSize;
+        this.chunkSize = chunkSize;
+        this.sessionTtlMillis = sessionTtlMillis;
+        this.maxSessions = maxSessions;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    @Override
+    public UploadSessionDTO open(UploadSessionRequest request) throws IOException {
+        if (request.getSize() == null || request.getSize() <= 0 || request.getSize() > maxFileSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Taille de fichier invalide ou supérieure à " + maxFileSize);
+        }
+        if (!taskRepository.existsById(request.getTaskId())) {
+            throw new ResourceNotFoundException("Tâche non trouvée avec l'id: " + request.getTaskId());
+        }
+        Long userId = SecurityUtils.currentUserId(SecurityContextHolder.getContext().getAuthentication());
+        if (userId == null) {
+            throw new AccessDeniedException("Utilisateur non identifié");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Path file = blobStore.stagingRoot().resolve(uploadId + SESSION_SUFFIX);
+        UploadSession session = new UploadSession(uploadId, userId, request, file);
+        register(session);
+        // Fichier préalloué à sa taille finale : chaque morceau est écrit directement à sa position
+        try (RandomAccessFile preallocated = new RandomAccessFile(file.toFile(), "rw")) {
+            preallocated.setLength(request.getSize());
+        } catch (IOException e) {
+            sessions.remove(uploadId);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return toDTO(session);
+    }
+
+    // Limites vérifiées et session ajoutée d'un seul tenant : chaque session réserve jusqu'à maxFileSize sur le disque
+    private synchronized void register(UploadSession session) {
+        if (sessions.size() >= maxSessions) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trop d'envois en cours, réessayez plus tard");
+        }
+        long open = sessions.values().stream().filter(other -> other.userId.equals(session.userId)).count();
+        if (open >= maxSessionsPerUser) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Trop d'envois ouverts pour cet utilisateur (max " + maxSessionsPerUser + ")");
+        }
+        sessions.put(session.id, session);
+    }
+
+    @Override
+    public UploadSessionDTO writeChunk(String uploadId, long offset, long length, InputStream body) throws IOException {
+        UploadSession session = session(uploadId);
+        long remaining = session.size - offset;
+        if (offset < 0 || remaining <= 0 || length > remaining) {
+            throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Morceau hors des limites du fichier");
+        }
+        // Verrou partagé : les morceaux s'écrivent en parallèle, jamais pendant la validation ou l'abandon
+        Lock chunkLock = session.lock.readLock();
+        chunkLock.lock();
+        try {
+            session.checkWritable();
+            // Longueur inconnue (Transfer-Encoding: chunked) : lecture jusqu'à la fin du corps, bornée par la taille déclarée
+            long expected = length >= 0 ? length : remaining;
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                ReadableByteChannel source = Channels.newChannel(body);
+                while (written < expected) {
+                    long transferred = channel.transferFrom(source, offset + written, expected - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+            } finally {
+                // Même interrompu, ce qui a été écrit est conservé : le client reprend à la fin de la plage reçue
+                session.received(offset, offset + written);
+            }
+            if (length < 0 && written == expected && body.read() != -1) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Morceau au-delà de la taille déclarée");
+            }
+        } finally {
+            chunkLock.unlock();
+        }
+        return toDTO(session);
+    }
+
+    @Override
+    public UploadSessionDTO getStatus(String uploadId) {
+        return toDTO(session(uploadId));
+    }
+
+    @Override
+    public AttachmentDTO commit(String uploadId) throws IOException {
+        UploadSession session = session(uploadId);
+        // Verrou exclusif : attend la fin des morceaux en cours d'écriture, les suivants seront refusés
+        session.lock.writeLock().lock();
+        try {
+            session.checkWritable();
+            if (!session.isComplete()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Envoi incomplet : " + session.receivedBytes() + " octets reçus sur " + session.size);
+            }
+            session.committing = true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+        try {
+            String hash = BlobStore.sha256(session.file);
+            if (session.expectedSha256 != null && !session.expectedSha256.equalsIgnoreCase(hash)) {
+                // Contenu corrompu : la session est abandonnée, le client doit recommencer
+                discard(session);
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Somme de contrôle SHA-256 invalide");
+            }
+            AttachmentDTO attachment = attachmentService.attachStagedFile(session.file, hash, session.fileName,
+                    session.fileType, session.taskId, session.userId);
+            sessions.remove(uploadId);
+            return attachment;
+        } catch (RuntimeException | IOException e) {
+            if (Files.exists(session.file)) {
+                session.committing = false;
+            } else if (!session.failed) {
+                // Le fichier a déjà été rangé (ou supprimé) par le BlobStore : la session ne peut plus être reprise
+                session.failed = true;
+                sessions.remove(uploadId);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = session(uploadId);
+        session.lock.writeLock().lock();
+        try {
+            session.checkWritable();
+            discard(session);
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    // Sessions abandonnées, puis fichiers de transit orphelins (sessions perdues au redémarrage)
+    @Scheduled(fixedDelayString = "${attachments.upload.gc-ms:600000}")
+    public void collectAbandoned() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMillis;
+        for (UploadSession session : sessions.values()) {
+            // Une session dont un morceau est en cours d'écriture n'est pas abandonnée
+            if (session.lastActivity < cutoff && session.lock.writeLock().tryLock()) {
+                try {
+                    if (!session.committing) {
+                        discard(session);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete abandoned upload {}: {}", session.id, e.getMessage());
+                } finally {
+                    session.lock.writeLock().unlock();
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(blobStore.stagingRoot())) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean live = name.endsWith(SESSION_SUFFIX)
+                        && sessions.containsKey(name.substring(0, name.length() - SESSION_SUFFIX.length()));
+                if (!live && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean upload staging area: {}", e.getMessage());
+        }
+    }
+
+    private void discard(UploadSession session) throws IOException {
+        sessions.remove(session.id);
+        Files.deleteIfExists(session.file);
+    }
+
+    // Seul l'auteur de l'envoi (ou un admin) peut y écrire
+    private UploadSession session(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new ResourceNotFoundException("Envoi non trouvé ou expiré: " + uploadId);
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!isAdmin && !session.userId.equals(SecurityUtils.currentUserId(auth))) {
+            throw new AccessDeniedException("Cet envoi appartient à un autre utilisateur");
+        }
+        session.lastActivity = System.currentTimeMillis();
+        return session;
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        UploadSessionDTO dto = new UploadSessionDTO();
+        dto.setUploadId(session.id);
+        dto.setTaskId(session.taskId);
+        dto.setFileName(session.fileName);
+        dto.setSize(session.size);
+        dto.setRanges(session.ranges());
+        dto.setReceived(session.receivedBytes());
+        dto.setComplete(session.isComplete());
+        dto.setChunkSize(chunkSize);
+        dto.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(session.lastActivity + sessionTtlMillis),
+                ZoneId.systemDefault()));
+        return dto;
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final Long userId;
+        private final Long taskId;
+        private final String fileName;
+        private final String fileType;
+        private final long size;
+        private final String expectedSha256;
+        private final Path file;
+        // Plages reçues, fusionnées : début -> fin (exclue)
+        private final TreeMap<Long, Long> received = new TreeMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile long lastActivity = System.currentTimeMillis();
+        private volatile boolean committing;
+        // Validation échouée après que le BlobStore a pris le fichier : la session est retirée
+        private volatile boolean failed;
+
+        private UploadSession(String id, Long userId, UploadSessionRequest request, Path file) {
+            this.id = id;
+            this.userId = userId;
+            this.taskId = request.getTaskId();
+            this.fileName = request.getFileName();
+            this.fileType = request.getFileType();
+            this.size = request.getSize();
+            this.expectedSha256 = request.getSha256();
+            this.file = file;
+        }
+
+        // À appeler sous le verrou de la session
+        private void checkWritable() {
+            if (failed) {
+                throw new ResponseStatusException(HttpStatus.GONE, "Envoi échoué, recommencez l'envoi");
+            }
+            if (committing) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Envoi en cours de validation");
+            }
+        }
+
+        private synchronized void received(long start, long end) {
+            if (end <= start) {
+                return;
+            }
+            Map.Entry<Long, Long> previous = received.floorEntry(start);
+            if (previous != null && previous.getValue() >= start) {
+                start = previous.getKey();
+                end = Math.max(end, previous.getValue());
+            }
+            Map.Entry<Long, Long> next = received.ceilingEntry(start);
+            while (next != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                received.remove(next.getKey());
+                next = received.ceilingEntry(start);
+            }
+            received.put(start, end);
+        }
+
+        private synchronized long receivedBytes() {
+            long total = 0;
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                total += range.getValue() - range.getKey();
+            }
+            return total;
+        }
+
+        private synchronized boolean isComplete() {
+            Map.Entry<Long, Long> first = received.firstEntry();
+            return received.size() == 1 && first.getKey() == 0 && first.getValue() == size;
+        }
+
+        private synchronized List<long[]> ranges() {
+            List<long[]> ranges = new ArrayList<>(received.size());
+            received.forEach((start, end) -> ranges.add(new long[]{start, end}));
+            return ranges;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.taskapp.backend.services.Attachment;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Rendu des miniatures en Java pur : ImageIO pour les images (JPEG, PNG, GIF, BMP, TIFF...)
+ * et PDFBox pour la première page des PDF. Les grandes images sont sous-échantillonnées dès
+ * le décodage, puis réduites par moitiés successives : la mémoire utilisée reste proportionnelle
+ * à la miniature et non à l'original.
+ */
+public final class ThumbnailRenderer {
+
+    private static final String PDF = "application/pdf";
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ThumbnailRenderer() {
+    }
+
+    public static boolean supports(String fileType) {
+        String type = normalize(fileType);
+        if (type == null) {
+            return false;
+        }
+        return type.equals(PDF) || (type.startsWith("image/") && ImageIO.getImageReadersByMIMEType(type).hasNext());
+    }
+
+    /**
+     * Décode la source une seule fois, à une résolution suffisante pour la plus grande taille demandée.
+     * Renvoie une image RVB dont le plus grand côté ne dépasse guère 2 x maxSize.
+     */
+    public static BufferedImage decode(Path source, String fileType, int maxSize, long maxPixels) throws IOException {
+        String type = normalize(fileType);
+        BufferedImage image = PDF.equals(type)
+                ? renderFirstPage(source, maxSize)
+                : readImage(source, type, maxSize, maxPixels);
+        return toRgb(image);
+    }
+
+    // Réduction par moitiés successives (qualité proche du bicubique, coût d'une interpolation bilinéaire)
+    public static BufferedImage scale(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        BufferedImage current = image;
+        while (width != targetWidth || height != targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    public static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage readImage(Path source, String type, int maxSize, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("Unreadable image " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                readers = ImageIO.getImageReadersByMIMEType(type);
+            }
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for " + type);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Sous-échantillonnage au décodage : on garde au moins 2 x maxSize pour la qualité de la réduction
+                int subsampling = Math.max(1, Math.min(width, height) / (2 * maxSize));
+                long decodedPixels = (long) (width / subsampling) * (height / subsampling);
+                if (decodedPixels > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage renderFirstPage(Path source, int maxSize) throws IOException {
+        try (PDDocument document = Loader.loadPDF(source.toFile())) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("Empty PDF " + source);
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longest = Math.max(box.getWidth(), box.getHeight());
+            // Rendu direct à la taille utile (1 point PDF = 1 pixel à l'échelle 1)
+            float scale = longest > 0 ? Math.min(4f, maxSize / longest) : 1f;
+            return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    // Les JPEG n'ont pas de canal alpha : la transparence est aplatie sur fond blanc
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static String normalize(String fileType) {
+        if (fileType == null) {
+            return null;
+        }
+        String type = fileType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters);
+        }
+        type = type.trim();
+        return type.equals("image/jpg") ? "image/jpeg" : type;
+    }
+}
@@ -0,0 +1,15 @@
+package com.taskapp.backend.services.Attachment;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ThumbnailService {
+    // Planifie la génération des miniatures après le commit de la transaction courante
+    void generateAfterCommit(String contentHash, String fileType);
+    // Miniature déjà générée ; sinon sa génération est relancée si besoin et le résultat est vide
+    Optional<Path> find(String contentHash, String fileType, int size);
+    // Type pris en charge, contenu stocké par empreinte et pas d'échec de génération connu
+    boolean canGenerate(String contentHash, String fileType);
+    // Taille effectivement servie pour une taille demandée (la plus petite variante suffisante)
+    int variantSize(int requestedSize);
+}
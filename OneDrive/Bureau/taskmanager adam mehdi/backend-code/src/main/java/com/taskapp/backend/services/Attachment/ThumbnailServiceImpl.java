@@ -0,0 +1,192 @@
+package com.taskapp.backend.services.Attachment;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.services.Storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génération des miniatures en arrière-plan : après le commit d'une pièce jointe, un pool borné de
+ * threads de basse priorité décode le fichier une fois et écrit chaque variante à côté du blob
+ * (&lt;hash&gt;.thumb-&lt;taille&gt;.jpg). Le contenu étant adressé par empreinte, les miniatures sont
+ * partagées par les pièces jointes identiques et supprimées avec le blob.
+ * File pleine : le travail est abandonné (compté), et la miniature sera regénérée à sa première demande.
+ */
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailServiceImpl.class);
+    private static final int MAX_REMEMBERED_FAILURES = 10_000;
+
+    private final BlobStore blobStore;
+    private final int[] sizes;
+    private final long maxPixels;
+    private final ThreadPoolExecutor renderers;
+    // Empreintes en cours de génération, pour ne pas traiter deux fois un même contenu
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Fichiers illisibles ou trop grands : pas de nouvelle tentative à chaque affichage
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    private final Timer renderTime;
+    private final Counter rejected;
+    private final Counter failures;
+
+    public ThumbnailServiceImpl(BlobStore blobStore,
+                                MeterRegistry meterRegistry,
+                                @Value("${attachments.thumbnails.sizes:160,640}") int[] sizes,
+                                @Value("${attachments.thumbnails.max-pixels:40000000}") long maxPixels,
+                                @Value("${attachments.thumbnails.threads:0}") int threads,
+                                @Value("${attachments.thumbnails.queue-capacity:100}") int queueCapacity) {
+        this.blobStore = blobStore;
+        this.sizes = Arrays.stream(sizes).filter(size -> size > 0).distinct().sorted().toArray();
+        if (this.sizes.length == 0) {
+            throw new IllegalArgumentException("attachments.thumbnails.sizes must contain at least one size");
+        }
+        this.maxPixels = maxPixels;
+
+        this.renderTime = Timer.builder("attachments.thumbnails.render")
+                .description("Décodage d'une pièce jointe et écriture de toutes ses miniatures")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("attachments.thumbnails.rejected")
+                .description("Générations abandonnées car la file était pleine")
+                .register(meterRegistry);
+        this.failures = Counter.builder("attachments.thumbnails.failed")
+                .description("Fichiers dont les miniatures n'ont pas pu être générées")
+                .register(meterRegistry);
+
+        // Travail lié au CPU : threads plateforme, la moitié des cœurs par défaut, en basse priorité
+        // pour que les requêtes HTTP restent prioritaires lors d'un afflux d'envois
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.renderers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("attachments.thumbnails.queue.depth", renderers, executor -> executor.getQueue().size())
+                .description("Pièces jointes en attente de génération de miniatures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void generateAfterCommit(String contentHash, String fileType) {
+        if (contentHash != null && ThumbnailRenderer.supports(fileType)) {
+            TransactionUtils.afterCommit(() -> submit(contentHash, fileType));
+        }
+    }
+
+    @Override
+    public Optional<Path> find(String contentHash, String fileType, int size) {
+        if (!canGenerate(contentHash, fileType)) {
+            return Optional.empty();
+        }
+        Path thumbnail = blobStore.variantPath(contentHash, variant(variantSize(size)));
+        if (Files.exists(thumbnail)) {
+            return Optional.of(thumbnail);
+        }
+        // Génération perdue (file pleine, redémarrage) ou pièce jointe antérieure au pipeline
+        submit(contentHash, fileType);
+        return Optional.empty();
+    }
+
+    @Override
+    public int variantSize(int requestedSize) {
+        for (int size : sizes) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    @Override
+    public boolean canGenerate(String contentHash, String fileType) {
+        return contentHash != null && ThumbnailRenderer.supports(fileType) && !failed.contains(contentHash);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderers.shutdownNow();
+    }
+
+    private void submit(String contentHash, String fileType) {
+        if (!pending.add(contentHash)) {
+            return;
+        }
+        try {
+            renderers.execute(() -> {
+                try {
+                    render(contentHash, fileType);
+                } finally {
+                    pending.remove(contentHash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(contentHash);
+            rejected.increment();
+        }
+    }
+
+    private void render(String contentHash, String fileType) {
+        Path source = blobStore.pathOf(contentHash);
+        if (!Files.exists(source) || Files.exists(blobStore.variantPath(contentHash, variant(sizes[0])))) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Un seul décodage ; chaque taille est réduite à partir de la précédente, de la plus grande à la plus petite
+            BufferedImage image = ThumbnailRenderer.decode(source, fileType, sizes[sizes.length - 1], maxPixels);
+            for (int i = sizes.length - 1; i >= 0; i--) {
+                image = ThumbnailRenderer.scale(image, sizes[i]);
+                Path staged = blobStore.newStagingFile();
+                try {
+                    ThumbnailRenderer.writeJpeg(image, staged);
+                    if (!blobStore.storeVariant(contentHash, variant(sizes[i]), staged)) {
+                        // Blob supprimé pendant la génération
+                        return;
+                    }
+                } finally {
+                    Files.deleteIfExists(staged);
+                }
+            }
+            renderTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            if (failed.size() >= MAX_REMEMBERED_FAILURES) {
+                failed.clear();
+            }
+            failed.add(contentHash);
+            logger.warn("Could not generate thumbnails for blob {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    private static String variant(int size) {
+        return "thumb-" + size + ".jpg";
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskapp.backend.services.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chemin matérialisé d'un commentaire : l'identifiant de chaque ancêtre puis le sien, en base 36
+ * sur une largeur fixe et suivi de '/'. L'ordre alphabétique des chemins est donc l'ordre d'un
+ * parcours en profondeur (réponses par ordre de création), et un fil complet se sélectionne
+ * avec un simple préfixe (path LIKE 'racine/%').
+ */
+final class CommentPaths {
+
+    // 36^8 ≈ 2,8.10^12 identifiants avant de dépasser la largeur d'un segment
+    static final int SEGMENT_WIDTH = 8;
+    static final int SEGMENT_LENGTH = SEGMENT_WIDTH + 1;
+    // Doit tenir dans la colonne comment.path (voir Comment)
+    static final int MAX_DEPTH = 64;
+
+    private CommentPaths() {
+    }
+
+    static String childOf(String parentPath, long id) {
+        String segment = Long.toString(id, 36);
+        StringBuilder path = new StringBuilder(
+                (parentPath != null ? parentPath.length() : 0) + SEGMENT_LENGTH);
+        if (parentPath != null) {
+            path.append(parentPath);
+        }
+        path.append("0".repeat(Math.max(0, SEGMENT_WIDTH - segment.length())));
+        return path.append(segment).append('/').toString();
+    }
+
+    static int depthOf(String path) {
+        return path.length() / SEGMENT_LENGTH - 1;
+    }
+
+    // Identifiants des ancêtres, de la racine au parent
+    static List<Long> ancestorIds(String path) {
+        int depth = depthOf(path);
+        List<Long> ids = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            int start = i * SEGMENT_LENGTH;
+            ids.add(Long.parseLong(path.substring(start, start + SEGMENT_WIDTH), 36));
+        }
+        return ids;
+    }
+
+    static String rootOf(String path) {
+        return path.substring(0, SEGMENT_LENGTH);
+    }
+}
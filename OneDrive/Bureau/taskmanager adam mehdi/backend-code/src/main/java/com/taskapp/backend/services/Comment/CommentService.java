@@ -1,6 +1,7 @@
 package com.taskapp.backend.services.Comment;
 
 import com.taskapp.backend.dto.CommentDTO;
+import com.taskapp.backend.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -15,4 +16,15 @@ public interface CommentService {
 
     Page<CommentDTO> getCommentsByTask(Long taskId, int page, int size);
 
+    // Page de fils racines, chacun avec toutes ses réponses imbriquées
+    Page<CommentDTO> getCommentThreads(Long taskId, int page, int size);
+
+    CursorPageDTO<CommentDTO> scrollCommentsByTask(Long taskId, String after, int size);
+
+    // Fils racines par curseur, chacun avec au plus `replies` réponses (replyCount et repliesCursor pour la suite)
+    CursorPageDTO<CommentDTO> scrollCommentThreads(Long taskId, String after, int size, int replies);
+
+    // Suite d'un sous-fil, à plat et dans l'ordre du fil (parentId et depth pour le replacer)
+    CursorPageDTO<CommentDTO> scrollReplies(Long commentId, String after, int size);
+
 }
\ No newline at end of file
@@ -6,16 +6,35 @@ import com.taskapp.backend.entities.User;
 import com.taskapp.backend.repositories.CommentRepository;
 import com.taskapp.backend.repositories.TaskRepository;
 import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.Utils.KeysetCursor;
+import com.taskapp.backend.Utils.SecurityUtils;
 import com.taskapp.backend.dto.CommentDTO;
+import com.taskapp.backend.dto.CursorPageDTO;
 import com.taskapp.backend.exceptions.ResourceNotFoundException;
+import com.taskapp.backend.services.Projection.DtoAssembler;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +44,15 @@ public class CommentServiceImpl implements CommentService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final com.taskapp.backend.services.Notification.NotificationService notificationService;
+    private final com.taskapp.backend.services.Notification.NotificationFanoutService notificationFanoutService;
+    private final DtoAssembler dtoAssembler;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
+    private static final int PATH_BACKFILL_BATCH_SIZE = 500;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"));
+    private static final Sort PATH_SORT = Sort.by(Sort.Order.asc("path"));
+    private static final int MAX_PREVIEW_REPLIES = 20;
 
     @Override
     @Transactional
@@ -34,12 +62,14 @@ public class CommentServiceImpl implements CommentService {
         if (commentDTO.getParentId() != null) {
             parent = commentRepository.findById(commentDTO.getParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Commentaire parent non trouvé"));
+            if (parent.getDepth() != null && parent.getDepth() + 1 > CommentPaths.MAX_DEPTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Profondeur maximale des réponses atteinte");
+            }
         }
 
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try { userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId(); } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         Task task = taskRepository.findById(commentDTO.getTaskId())
                 .orElseThrow(() -> new ResourceNotFoundException("Tâche non trouvée"));
         if (!isAdmin && (task.getAssignedTo() == null || userId == null || task.getAssignedTo().getId() != userId)) {
@@ -52,14 +82,21 @@ public class CommentServiceImpl implements CommentService {
         comment.setCreatedBy(user);
         comment.setCreatedAt(LocalDateTime.now());
         comment.setParent(parent);
+        comment.setReplyCount(0);
         Comment savedComment = commentRepository.save(comment);
+        // Le chemin contient l'identifiant généré : il est renseigné juste après l'insertion
+        assignPath(savedComment, parent);
+        // Une réponse de plus dans le sous-fil de chaque ancêtre, en une seule requête
+        if (parent != null) {
+            List<Long> ancestors = savedComment.getPath() != null
+                    ? CommentPaths.ancestorIds(savedComment.getPath())
+                    : ancestorIdsByParent(parent);
+            commentRepository.addToReplyCounts(ancestors, 1);
+        }
         // Notifications avancées sur les commentaires
         if (!isAdmin) {
-            // Notifier tous les admins d'un nouveau commentaire d'employé
-            java.util.List<User> admins = userRepository.findByUserRole(com.taskapp.backend.enums.UserRole.ADMIN);
-            for (User admin : admins) {
-                notificationService.createNotification("Nouveau commentaire de " + user.getName() + " sur la tâche: " + task.getTitle(), admin.getId(), task.getId());
-            }
+            // Notifier tous les admins d'un nouveau commentaire d'employé (distribué après le commit)
+            notificationFanoutService.notifyRole(com.taskapp.backend.enums.UserRole.ADMIN, "Nouveau commentaire de " + user.getName() + " sur la tâche: " + task.getTitle(), task.getId());
         } else if (isAdmin && task.getAssignedTo() != null) {
             // Notifier l'employé si un admin commente sa tâche
             notificationService.createNotification("Un admin a commenté votre tâche: " + task.getTitle(), task.getAssignedTo().getId(), task.getId());
@@ -68,7 +105,7 @@ public class CommentServiceImpl implements CommentService {
         if (parent != null && parent.getCreatedBy() != null && parent.getCreatedBy().getId() != user.getId()) {
             notificationService.createNotification("Réponse à votre commentaire sur la tâche: " + task.getTitle(), parent.getCreatedBy().getId(), task.getId());
         }
-        return convertToDTO(savedComment);
+        return dtoAssembler.comment(savedComment);
     }
 
     @Override
@@ -78,13 +115,12 @@ public class CommentServiceImpl implements CommentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Commentaire non trouvé"));
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try { userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId(); } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         if (!isAdmin && (comment.getCreatedBy() == null || userId == null || comment.getCreatedBy().getId() != userId)) {
             throw new org.springframework.security.access.AccessDeniedException("Vous ne pouvez modifier que vos propres commentaires");
         }
         comment.setContent(commentDTO.getContent());
-        return convertToDTO(commentRepository.save(comment));
+        return dtoAssembler.comment(commentRepository.save(comment));
     }
 
     @Override
@@ -94,37 +130,302 @@ public class CommentServiceImpl implements CommentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Commentaire non trouvé avec l'id: " + id));
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try { userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId(); } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         if (!isAdmin && (comment.getCreatedBy() == null || userId == null || comment.getCreatedBy().getId() != userId)) {
             throw new org.springframework.security.access.AccessDeniedException("Vous ne pouvez supprimer que vos propres commentaires");
         }
-        commentRepository.delete(comment);
+        Long taskId = comment.getTask().getId();
+        if (comment.getPath() == null || commentRepository.existsByTaskIdAndPathIsNull(taskId)) {
+            // Des réponses sans chemin échapperaient à la suppression par préfixe : suppression en cascade
+            // par parent_id, puis compteurs recalculés pour toute la tâche
+            commentRepository.delete(comment);
+            recountReplies(taskId);
+            return;
+        }
+        // Sous-fil supprimé niveau par niveau, du plus profond au commentaire lui-même, sans le charger
+        String path = comment.getPath();
+        int depth = comment.getDepth();
+        Integer maxDepth = commentRepository.findMaxDepthUnder(taskId, path);
+        int deleted = 0;
+        for (int level = maxDepth != null ? maxDepth : depth; level >= depth; level--) {
+            deleted += commentRepository.deleteSubtreeLevel(taskId, path, level);
+        }
+        List<Long> ancestors = CommentPaths.ancestorIds(path);
+        if (!ancestors.isEmpty()) {
+            commentRepository.addToReplyCounts(ancestors, -deleted);
+        }
     }
 
     @Override
     public CommentDTO getCommentById(Long id) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Commentaire non trouvé avec l'id: " + id));
-        return convertToDTO(comment);
+        return dtoAssembler.comment(comment);
     }
 
     @Override
     public List<CommentDTO> getCommentsByTaskId(Long taskId) {
-        // Récupérer uniquement les commentaires racines (parent == null)
-        List<Comment> rootComments = commentRepository.findByTaskIdAndParentIsNull(taskId);
-        List<CommentDTO> rootDTOs = new ArrayList<>();
-        for (Comment comment : rootComments) {
-            rootDTOs.add(convertToDTOWithReplies(comment));
+        if (commentRepository.existsByTaskIdAndPathIsNull(taskId)) {
+            return treeByParent(taskId);
+        }
+        // Une requête pour tous les commentaires de la tâche, en ordre de parcours : l'arbre est assemblé en mémoire
+        return dtoAssembler.commentTree(commentRepository.findByTaskIdOrderByPathAsc(taskId));
+    }
+
+    @Override
+    public Page<CommentDTO> getCommentThreads(Long taskId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (commentRepository.existsByTaskIdAndPathIsNull(taskId)) {
+            List<CommentDTO> roots = treeByParent(taskId);
+            int from = (int) Math.min(pageRequest.getOffset(), roots.size());
+            int to = Math.min(from + pageRequest.getPageSize(), roots.size());
+            return new PageImpl<>(roots.subList(from, to), pageRequest, roots.size());
+        }
+        List<Comment> comments = commentRepository.findThreads(taskId, pageRequest.getOffset(), pageRequest.getPageSize());
+        List<CommentDTO> roots = dtoAssembler.commentTree(comments);
+        return new PageImpl<>(roots, pageRequest, commentRepository.countByTaskIdAndParentIsNull(taskId));
+    }
+
+    // Rattrapage des commentaires antérieurs aux chemins et aux compteurs de réponses
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillThreads() {
+        backfillPaths();
+        backfillReplyCounts();
+    }
+
+    // Chemins : niveau par niveau et par lots, jusqu'à CommentPaths.MAX_DEPTH
+    private void backfillPaths() {
+        int updated = 0;
+        List<Comment> batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Comment> pathless = commentRepository.findPathBackfillBatch(CommentPaths.MAX_DEPTH,
+                        PageRequest.of(0, PATH_BACKFILL_BATCH_SIZE));
+                for (Comment comment : pathless) {
+                    assignPath(comment, comment.getParent());
+                }
+                return pathless;
+            });
+            updated += batch.size();
+        } while (!batch.isEmpty());
+        if (updated > 0) {
+            logger.info("Backfilled materialized paths for {} comments", updated);
+        }
+        long tooDeep = commentRepository.countByPathIsNull();
+        if (tooDeep > 0) {
+            logger.warn("{} comments are nested deeper than {} levels and keep no path; their tasks are listed by parent_id",
+                    tooDeep, CommentPaths.MAX_DEPTH);
+        }
+    }
+
+    // Compteurs : recalculés tâche par tâche à partir de parent_id (les commentaires sans chemin comptent aussi)
+    private void backfillReplyCounts() {
+        List<Long> taskIds = commentRepository.findTaskIdsWithoutReplyCounts();
+        for (Long taskId : taskIds) {
+            transactionTemplate.executeWithoutResult(status -> recountReplies(taskId));
+        }
+        if (!taskIds.isEmpty()) {
+            logger.info("Backfilled comment reply counts for {} tasks", taskIds.size());
+        }
+    }
+
+    private void recountReplies(Long taskId) {
+        List<Comment> comments = commentRepository.findByTaskIdOrderByIdAsc(taskId);
+        // Parcours par id décroissant : le sous-fil d'une réponse est complet avant d'être ajouté à son parent
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = comments.size() - 1; i >= 0; i--) {
+            Comment comment = comments.get(i);
+            if (comment.getParent() != null) {
+                counts.merge(comment.getParent().getId(), counts.getOrDefault(comment.getId(), 0) + 1, Integer::sum);
+            }
+        }
+        for (Comment comment : comments) {
+            comment.setReplyCount(counts.getOrDefault(comment.getId(), 0));
+        }
+    }
+
+    // Ancêtres d'un commentaire sans chemin, du parent direct à la racine
+    private List<Long> ancestorIdsByParent(Comment parent) {
+        List<Long> ids = new ArrayList<>();
+        for (Comment ancestor = parent; ancestor != null; ancestor = ancestor.getParent()) {
+            ids.add(ancestor.getId());
+        }
+        return ids;
+    }
+
+    // Arbre reconstruit par parent_id tant que des commentaires de la tâche n'ont pas de chemin
+    // (rattrapage en cours, ou fil plus profond que CommentPaths.MAX_DEPTH) : l'ordre par id fait
+    // précéder chaque parent de ses réponses
+    private List<CommentDTO> treeByParent(Long taskId) {
+        return dtoAssembler.commentTree(commentRepository.findByTaskIdOrderByIdAsc(taskId));
+    }
+
+    // Réponses d'un sous-arbre à plat, en ordre de parcours (le même que l'ordre des chemins)
+    private static void flatten(List<CommentDTO> replies, List<CommentDTO> out) {
+        if (replies == null) {
+            return;
+        }
+        for (CommentDTO reply : replies) {
+            out.add(reply);
+            flatten(reply.getReplies(), out);
+        }
+    }
+
+    // Ne garde que les `remaining` premières réponses du sous-arbre, en ordre de parcours
+    private static int prune(CommentDTO node, int remaining) {
+        if (node.getReplies() == null) {
+            return remaining;
+        }
+        List<CommentDTO> kept = new ArrayList<>();
+        for (CommentDTO reply : node.getReplies()) {
+            if (remaining == 0) {
+                break;
+            }
+            kept.add(reply);
+            remaining = prune(reply, remaining - 1);
+        }
+        node.setReplies(kept.isEmpty() ? null : kept);
+        return remaining;
+    }
+
+    // Page après l'élément `after` d'une liste déjà ordonnée ; le curseur ne porte que l'id
+    private static CursorPageDTO<CommentDTO> sliceAfter(List<CommentDTO> items, String after, int size) {
+        ScrollPosition position = KeysetCursor.decode(after, "id");
+        Object afterId = position instanceof KeysetScrollPosition keyset ? keyset.getKeys().get("id") : null;
+        int from = 0;
+        if (afterId != null) {
+            from = afterId instanceof Number id ? indexOf(items, id.longValue()) + 1 : 0;
+            if (from == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        int to = Math.min(items.size(), from + KeysetCursor.limit(size).max());
+        List<CommentDTO> content = new ArrayList<>(items.subList(from, to));
+        CursorPageDTO<CommentDTO> page = new CursorPageDTO<>();
+        page.setContent(content);
+        page.setSize(content.size());
+        page.setHasNext(to < items.size());
+        page.setNextCursor(page.isHasNext() && !content.isEmpty()
+                ? KeysetCursor.encode(Map.of("id", content.get(content.size() - 1).getId())) : null);
+        return page;
+    }
+
+    private static int indexOf(List<CommentDTO> items, long id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void assignPath(Comment comment, Comment parent) {
+        if (parent != null && parent.getPath() == null) {
+            // Parent pas encore rattrapé : le rattrapage traitera la réponse au niveau suivant
+            return;
+        }
+        String path = CommentPaths.childOf(parent != null ? parent.getPath() : null, comment.getId());
+        comment.setPath(path);
+        comment.setDepth(CommentPaths.depthOf(path));
+    }
+
+    @Override
+    public CursorPageDTO<CommentDTO> scrollCommentThreads(Long taskId, String after, int size, int replies) {
+        int repliesPerThread = Math.max(0, Math.min(replies, MAX_PREVIEW_REPLIES));
+        if (commentRepository.existsByTaskIdAndPathIsNull(taskId)) {
+            return scrollThreadsByParent(taskId, after, size, repliesPerThread);
+        }
+        Window<Comment> window = commentRepository.findByTaskIdAndParentIsNull(taskId,
+                KeysetCursor.decode(after, "path", "id"), PATH_SORT, KeysetCursor.limit(size));
+        List<Comment> roots = window.getContent();
+        List<Comment> previews = repliesPerThread > 0 && !roots.isEmpty()
+                ? commentRepository.findReplyPreviews(taskId, roots.get(0).getPath(),
+                        roots.get(roots.size() - 1).getPath(), repliesPerThread)
+                : List.of();
+
+        // Nombre de réponses affichées et dernier chemin affiché, par fil
+        Map<String, Integer> shown = new HashMap<>();
+        Map<String, Comment> lastShown = new HashMap<>();
+        for (Comment reply : previews) {
+            String root = CommentPaths.rootOf(reply.getPath());
+            shown.merge(root, 1, Integer::sum);
+            lastShown.put(root, reply);
+        }
+        List<Comment> ordered = new ArrayList<>(roots.size() + previews.size());
+        ordered.addAll(roots);
+        ordered.addAll(previews);
+        ordered.sort(Comparator.comparing(Comment::getPath, Comparator.nullsFirst(Comparator.naturalOrder())));
+        List<CommentDTO> threads = dtoAssembler.commentTree(ordered);
+        for (int i = 0; i < threads.size(); i++) {
+            CommentDTO thread = threads.get(i);
+            String root = roots.get(i).getPath();
+            int count = shown.getOrDefault(root, 0);
+            if (thread.getReplyCount() != null && thread.getReplyCount() > count && count > 0) {
+                // Mêmes clés que la position d'une Window triée par chemin (l'id y est ajouté par Spring Data)
+                Comment last = lastShown.get(root);
+                thread.setRepliesCursor(KeysetCursor.encode(Map.of("path", last.getPath(), "id", last.getId())));
+            }
+        }
+        return CursorPageDTO.of(threads, window);
+    }
+
+    // Même réponse que scrollCommentThreads, à partir de l'arbre par parent_id ; les curseurs portent l'id
+    private CursorPageDTO<CommentDTO> scrollThreadsByParent(Long taskId, String after, int size, int repliesPerThread) {
+        CursorPageDTO<CommentDTO> page = sliceAfter(treeByParent(taskId), after, size);
+        for (CommentDTO thread : page.getContent()) {
+            List<CommentDTO> all = new ArrayList<>();
+            flatten(thread.getReplies(), all);
+            prune(thread, repliesPerThread);
+            if (repliesPerThread > 0 && all.size() > repliesPerThread) {
+                thread.setRepliesCursor(KeysetCursor.encode(Map.of("id", all.get(repliesPerThread - 1).getId())));
+            }
         }
-        return rootDTOs;
+        return page;
+    }
+
+    @Override
+    public CursorPageDTO<CommentDTO> scrollReplies(Long commentId, String after, int size) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Commentaire non trouvé avec l'id: " + commentId));
+        Long taskId = comment.getTask().getId();
+        if (comment.getPath() == null || commentRepository.existsByTaskIdAndPathIsNull(taskId)) {
+            List<CommentDTO> subtree = new ArrayList<>();
+            flatten(findInTree(treeByParent(taskId), commentId).getReplies(), subtree);
+            CursorPageDTO<CommentDTO> page = sliceAfter(subtree, after, size);
+            // À plat, comme la réponse par chemin : parentId et depth suffisent pour replacer chaque réponse
+            page.getContent().forEach(reply -> reply.setReplies(null));
+            return page;
+        }
+        Window<Comment> window = commentRepository.findByTaskIdAndPathStartingWithAndIdNot(comment.getTask().getId(),
+                comment.getPath(), comment.getId(), KeysetCursor.decode(after, "path", "id"), PATH_SORT, KeysetCursor.limit(size));
+        return CursorPageDTO.of(dtoAssembler.comments(window.getContent()), window);
+    }
+
+    private static CommentDTO findInTree(List<CommentDTO> nodes, Long id) {
+        List<CommentDTO> all = new ArrayList<>();
+        flatten(nodes, all);
+        for (CommentDTO node : all) {
+            if (node.getId().equals(id)) {
+                return node;
+            }
+        }
+        throw new ResourceNotFoundException("Commentaire non trouvé avec l'id: " + id);
     }
 
     @Override
     public Page<CommentDTO> getCommentsByTask(Long taskId, int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Comment> commentPage = commentRepository.findByTaskId(taskId, pageRequest);
-        return commentPage.map(this::convertToDTO);
+        return dtoAssembler.page(commentPage, dtoAssembler::comments);
+    }
+
+    @Override
+    public CursorPageDTO<CommentDTO> scrollCommentsByTask(Long taskId, String after, int size) {
+        Window<Comment> window = KeysetCursor.scroll(KeysetCursor.decode(after, "createdAt", "id"), KEYSET_SORT,
+                KeysetCursor.limit(size),
+                (position, sort, limit) -> commentRepository.findByTaskIdAndCreatedAtIsNotNull(taskId, position, sort, limit),
+                (position, sort, limit) -> commentRepository.findByTaskIdAndCreatedAtIsNull(taskId, position, sort, limit));
+        return CursorPageDTO.of(dtoAssembler.comments(window.getContent()), window);
     }
 
     private void updateCommentFromDTO(Comment comment, CommentDTO commentDTO) {
@@ -140,32 +441,4 @@ public class CommentServiceImpl implements CommentService {
             comment.setCreatedBy(createdBy);
         }
     }
-
-    private CommentDTO convertToDTO(Comment comment) {
-        CommentDTO dto = new CommentDTO();
-        dto.setId(comment.getId());
-        dto.setContent(comment.getContent());
-        dto.setTaskId(comment.getTask().getId());
-
-        if (comment.getCreatedBy() != null) {
-            dto.setCreatedById(comment.getCreatedBy().getId());
-            dto.setCreatedByName(comment.getCreatedBy().getUsername()); // Assurez-vous que l'entité User a un champ username
-        }
-
-        dto.setCreatedAt(comment.getCreatedAt());
-        return dto;
-    }
-
-    // Conversion récursive d'un commentaire et de ses réponses en DTO
-    private CommentDTO convertToDTOWithReplies(Comment comment) {
-        CommentDTO dto = convertToDTO(comment);
-        if (comment.getReplies() != null && !comment.getReplies().isEmpty()) {
-            List<CommentDTO> repliesDTO = new ArrayList<>();
-            for (Comment reply : comment.getReplies()) {
-                repliesDTO.add(convertToDTOWithReplies(reply));
-            }
-            dto.setReplies(repliesDTO);
-        }
-        return dto;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.taskapp.backend.services.Export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface ExportService {
+    // Chaque méthode écrit les lignes au fil de la lecture et renvoie le nombre de lignes exportées
+    long exportTasks(String title, String description, String status, String priority, List<Long> labelIds,
+                     ExportFormat format, OutputStream out) throws IOException;
+
+    // taskId null : historique / commentaires de toutes les tâches
+    long exportTaskHistory(Long taskId, ExportFormat format, OutputStream out) throws IOException;
+    long exportComments(Long taskId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,161 @@
+package com.taskapp.backend.services.Export;
+
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.repositories.CommentRepository;
+import com.taskapp.backend.repositories.TaskHistoryRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.projections.CommentExportView;
+import com.taskapp.backend.repositories.projections.TaskHistoryExportView;
+import com.taskapp.backend.repositories.projections.TaskLabelView;
+import com.taskapp.backend.services.Task.TaskService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exports en flux : les lignes sont lues par un curseur en avant seulement (fetch size fixe,
+ * projections non gérées par le contexte de persistance) et écrites aussitôt dans la réponse.
+ * La mémoire utilisée ne dépend pas du nombre de lignes ; seules les étiquettes des tâches sont
+ * chargées par paquets de CHUNK_SIZE tâches.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int CHUNK_SIZE = 500;
+
+    private static final List<String> TASK_COLUMNS = List.of("id", "title", "description", "status", "priority",
+            "dueDate", "assignedToId", "createdAt", "updatedAt", "labels");
+    private static final List<String> HISTORY_COLUMNS = List.of("id", "taskId", "modifiedById", "field",
+            "oldValue", "newValue", "modifiedAt");
+    private static final List<String> COMMENT_COLUMNS = List.of("id", "taskId", "parentId", "createdById",
+            "depth", "content", "createdAt");
+
+    private final EntityManager entityManager;
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final CommentRepository commentRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(String title, String description, String status, String priority, List<Long> labelIds,
+                            ExportFormat format, OutputStream out) throws IOException {
+        // Plusieurs Specifications quand un critère texte est donné : une par tranche d'ids croissants,
+        // ce qui conserve l'ordre par id de l'export sans plafonner la correspondance
+        List<Specification<Task>> specs = taskService.searchSpecifications(title, description, status, priority, labelIds);
+        long count = 0;
+        try (RowWriter writer = RowWriter.open(format, out, TASK_COLUMNS)) {
+            for (Specification<Task> spec : specs) {
+                count += exportTasks(spec, writer);
+            }
+        }
+        return count;
+    }
+
+    private long exportTasks(Specification<Task> spec, RowWriter writer) throws IOException {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(root.get("id"), root.get("title"), root.get("description"), root.get("status"),
+                root.get("priority"), root.get("dueDate"), root.get("assignedTo").get("id"),
+                root.get("createdAt"), root.get("updatedAt"));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        long count = 0;
+        try (Stream<Tuple> rows = typedQuery.getResultStream()) {
+            List<Tuple> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<Tuple> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += writeTasks(chunk, writer);
+                    chunk.clear();
+                }
+            }
+            count += writeTasks(chunk, writer);
+        }
+        return count;
+    }
+
+    // Les étiquettes d'un paquet de tâches en une requête, le curseur principal restant ouvert
+    private int writeTasks(List<Tuple> chunk, RowWriter writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Tuple row : chunk) {
+            ids.add(row.get(0, Long.class));
+        }
+        Map<Long, List<String>> labels = new HashMap<>();
+        for (TaskLabelView label : taskRepository.findLabelsByTaskIds(ids)) {
+            labels.computeIfAbsent(label.getTaskId(), id -> new ArrayList<>()).add(label.getName());
+        }
+        for (Tuple row : chunk) {
+            Long id = row.get(0, Long.class);
+            writer.write(id, row.get(1), row.get(2), row.get(3), row.get(4), row.get(5), row.get(6),
+                    row.get(7), row.get(8), labels.getOrDefault(id, List.of()));
+        }
+        return chunk.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTaskHistory(Long taskId, ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<TaskHistoryExportView> rows = taskHistoryRepository.streamForExport(taskId);
+             RowWriter writer = RowWriter.open(format, out, HISTORY_COLUMNS)) {
+            Iterator<TaskHistoryExportView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TaskHistoryExportView row = iterator.next();
+                writer.write(row.getId(), row.getTaskId(), row.getModifiedById(), row.getField(),
+                        row.getOldValue(), row.getNewValue(), row.getModifiedAt());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportComments(Long taskId, ExportFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<CommentExportView> rows = commentRepository.streamForExport(taskId);
+             RowWriter writer = RowWriter.open(format, out, COMMENT_COLUMNS)) {
+            Iterator<CommentExportView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CommentExportView row = iterator.next();
+                writer.write(row.getId(), row.getTaskId(), row.getParentId(), row.getCreatedById(),
+                        row.getDepth(), row.getContent(), row.getCreatedAt());
+                count++;
+            }
+        }
+        return count;
+    }
+}
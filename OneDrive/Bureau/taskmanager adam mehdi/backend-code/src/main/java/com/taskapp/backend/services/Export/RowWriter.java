@@ -0,0 +1,136 @@
+package com.taskapp.backend.services.Export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Écriture ligne à ligne d'un export, sans rien conserver en mémoire entre deux lignes.
+ * La fermeture vide les tampons mais laisse le flux sous-jacent ouvert (réponse HTTP, gzip).
+ */
+abstract class RowWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    protected final List<String> columns;
+
+    private RowWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    static RowWriter open(ExportFormat format, OutputStream out, List<String> columns) throws IOException {
+        return format == ExportFormat.CSV ? new Csv(out, columns) : new Ndjson(out, columns);
+    }
+
+    // Une valeur par colonne, dans l'ordre des colonnes
+    abstract void write(Object... values) throws IOException;
+
+    // RFC 4180 : séparateur virgule, fins de ligne CRLF, guillemets doublés ; plusieurs valeurs séparées par '|'
+    private static final class Csv extends RowWriter {
+
+        private final Writer writer;
+
+        private Csv(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            write(columns.toArray());
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(values[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof Collection<?> values
+                    ? values.stream().map(String::valueOf).collect(Collectors.joining("|"))
+                    : value.toString();
+            // Une cellule texte commençant par = + - @ serait interprétée comme une formule par les tableurs
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // Un objet JSON par ligne, clés = colonnes ; dates au format ISO-8601
+    private static final class Ndjson extends RowWriter {
+
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.generator = JSON.createGenerator(out);
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                writeValue(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Collection<?> values) {
+                generator.writeStartArray();
+                for (Object item : values) {
+                    writeValue(item);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
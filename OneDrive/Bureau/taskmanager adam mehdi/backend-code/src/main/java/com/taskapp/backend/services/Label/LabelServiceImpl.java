@@ -1,5 +1,6 @@
 package com.taskapp.backend.services.Label;
 
+import com.taskapp.backend.Utils.SecurityUtils;
 import com.taskapp.backend.dto.LabelDTO;
 import com.taskapp.backend.entities.Label;
 import com.taskapp.backend.entities.Task;
@@ -80,10 +81,7 @@ public class LabelServiceImpl implements LabelService {
                 .orElseThrow(() -> new ResourceNotFoundException("Tâche non trouvée avec l'id: " + taskId));
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try {
-            userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId();
-        } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         if (!isAdmin && (task.getAssignedTo() == null || userId == null || task.getAssignedTo().getId() != userId)) {
             throw new org.springframework.security.access.AccessDeniedException("Vous ne pouvez consulter les labels que de vos propres tâches");
         }
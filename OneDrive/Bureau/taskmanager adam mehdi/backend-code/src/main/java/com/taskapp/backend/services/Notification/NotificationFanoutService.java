@@ -0,0 +1,10 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.enums.UserRole;
+
+import java.util.Collection;
+
+public interface NotificationFanoutService {
+    void notifyRole(UserRole role, String message, Long taskId);
+    void notifyUsers(Collection<Long> userIds, String message, Long taskId);
+}
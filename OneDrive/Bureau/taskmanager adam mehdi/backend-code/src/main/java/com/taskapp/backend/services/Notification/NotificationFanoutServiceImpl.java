@@ -0,0 +1,356 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.dto.NotificationDTO;
+import com.taskapp.backend.entities.NotificationEvent;
+import com.taskapp.backend.enums.UserRole;
+import com.taskapp.backend.repositories.NotificationEventRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.TaskTitleView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out des notifications : la transaction métier n'enregistre qu'un NotificationEvent,
+ * puis, après le commit, un pool de workers borné résout les destinataires et insère
+ * leurs notifications par lots JDBC. Les événements refusés (file pleine) ou perdus
+ * (redémarrage) sont repris par un balayage périodique. Un événement dont la distribution
+ * échoue maxAttempts fois est écarté (failed_at) au lieu d'être repris indéfiniment ;
+ * les événements distribués sont purgés après la durée de rétention.
+ */
+@Service
+public class NotificationFanoutServiceImpl implements NotificationFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanoutServiceImpl.class);
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notification (message, is_read, user_id, task_id, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int SWEEP_BATCH_SIZE = 500;
+    // Délai avant qu'un événement non traité soit considéré comme perdu par le balayage
+    private static final Duration SWEEP_GRACE = Duration.ofSeconds(10);
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationEventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationInbox notificationInbox;
+    private final ThreadPoolExecutor workers;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter rejected;
+    private final Counter deadLettered;
+
+    public NotificationFanoutServiceImpl(NotificationEventRepository eventRepository,
+                                         UserRepository userRepository,
+                                         TaskRepository taskRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         NotificationPublisher notificationPublisher,
+                                         NotificationInbox notificationInbox,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${notifications.fanout.workers:2}") int workerCount,
+                                         @Value("${notifications.fanout.queue-capacity:1000}") int queueCapacity,
+                                         @Value("${notifications.fanout.max-attempts:5}") int maxAttempts,
+                                         @Value("${notifications.fanout.retention-hours:168}") long retentionHours,
+                                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationPublisher = notificationPublisher;
+        this.notificationInbox = notificationInbox;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.lag = Timer.builder("notifications.fanout.lag")
+                .description("Délai entre le commit d'un événement et l'insertion de ses notifications")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("notifications.fanout.delivered")
+                .description("Notifications insérées par le fan-out")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("notifications.fanout.rejected")
+                .description("Événements refusés par la file, laissés au balayage")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("notifications.fanout.dead_lettered")
+                .description("Événements écartés après maxAttempts distributions échouées")
+                .register(meterRegistry);
+
+        // Profil "virtual" : les workers, qui bloquent surtout sur JDBC, tournent sur des threads virtuels
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("notification-fanout-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "notification-fanout-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                // File pleine : l'événement reste en base et sera repris par le balayage
+                (runnable, executor) -> rejected.increment());
+
+        Gauge.builder("notifications.fanout.queue.depth", workers, executor -> executor.getQueue().size())
+                .description("Événements de notification en attente d'un worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void notifyRole(UserRole role, String message, Long taskId) {
+        NotificationEvent event = new NotificationEvent();
+        event.setRecipientRole(role);
+        enqueue(event, message, taskId);
+    }
+
+    @Override
+    @Transactional
+    public void notifyUsers(Collection<Long> userIds, String message, Long taskId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        for (String recipientIds : recipientIdChunks(userIds)) {
+            NotificationEvent event = new NotificationEvent();
+            event.setRecipientIds(recipientIds);
+            enqueue(event, message, taskId);
+        }
+    }
+
+    // Listes d'identifiants séparés par des virgules, chacune tenant dans la colonne recipient_ids
+    static List<String> recipientIdChunks(Collection<Long> userIds) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            String id = String.valueOf(userId);
+            if (chunk.length() > 0 && chunk.length() + 1 + id.length() > NotificationEvent.RECIPIENT_IDS_LENGTH) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+            }
+            if (chunk.length() > 0) {
+                chunk.append(',');
+            }
+            chunk.append(id);
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    private void enqueue(NotificationEvent event, String message, Long taskId) {
+        event.setMessage(message);
+        event.setTaskId(taskId);
+        event.setCreatedAt(LocalDateTime.now());
+        Long eventId = eventRepository.save(event).getId();
+        TransactionUtils.afterCommit(() -> submit(eventId));
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.fanout.sweep-ms:30000}")
+    public void sweep() {
+        List<Long> pending = eventRepository.findPendingIds(LocalDateTime.now().minus(SWEEP_GRACE),
+                PageRequest.of(0, SWEEP_BATCH_SIZE));
+        pending.forEach(this::submit);
+    }
+
+    // Les événements distribués ne servent plus qu'au diagnostic : supprimés par lots après la rétention
+    @Scheduled(fixedDelayString = "${notifications.fanout.purge-ms:3600000}", initialDelayString = "${notifications.fanout.purge-ms:3600000}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long purged = 0;
+        List<Long> ids;
+        do {
+            ids = eventRepository.findProcessedIdsBefore(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                purged += transactionTemplate.execute(status -> eventRepository.deleteByIds(batch));
+            }
+        } while (ids.size() == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            logger.info("Purged {} processed notification events", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void submit(Long eventId) {
+        workers.execute(() -> {
+            try {
+                deliver(eventId);
+            } catch (RuntimeException e) {
+                // La transaction est annulée : l'événement redevient disponible pour le balayage
+                logger.error("Notification fan-out failed for event {}", eventId, e);
+                recordFailure(eventId, e);
+            }
+        });
+    }
+
+    private void recordFailure(Long eventId, RuntimeException failure) {
+        String error = String.valueOf(failure);
+        String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    eventRepository.recordFailure(eventId, truncated, maxAttempts, LocalDateTime.now()));
+            eventRepository.findById(eventId)
+                    .filter(event -> event.getFailedAt() != null)
+                    .ifPresent(event -> {
+                        deadLettered.increment();
+                        logger.error("Notification event {} discarded after {} failed attempts", eventId, event.getAttempts());
+                    });
+        } catch (RuntimeException e) {
+            logger.warn("Could not record failure of notification event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void deliver(Long eventId) {
+        List<NotificationDTO> created = transactionTemplate.execute(status -> {
+            if (eventRepository.claim(eventId, LocalDateTime.now()) == 0) {
+                return List.of();
+            }
+            NotificationEvent claimed = eventRepository.findById(eventId).orElse(null);
+            if (claimed == null) {
+                return List.of();
+            }
+            List<NotificationDTO> inserted = insertNotifications(claimed);
+            lag.record(Duration.between(claimed.getCreatedAt(), LocalDateTime.now()));
+            return inserted;
+        });
+        // Transaction validée : pousser les notifications vers les sessions connectées
+        if (created != null) {
+            for (NotificationDTO notification : created) {
+                notificationPublisher.created(notification);
+                notificationInbox.created(notification);
+            }
+        }
+    }
+
+    private List<NotificationDTO> insertNotifications(NotificationEvent event) {
+        List<Long> recipients = resolveRecipients(event);
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+        // La tâche a pu être supprimée entre-temps : la notification est alors conservée sans lien
+        Long taskId = null;
+        String taskTitle = null;
+        if (event.getTaskId() != null) {
+            List<TaskTitleView> task = taskRepository.findTitlesByIdIn(List.of(event.getTaskId()));
+            if (!task.isEmpty()) {
+                taskId = task.get(0).getId();
+                taskTitle = task.get(0).getTitle();
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDTO> created = new ArrayList<>(recipients.size());
+        for (int from = 0; from < recipients.size(); from += INSERT_BATCH_SIZE) {
+            List<Long> chunk = recipients.subList(from, Math.min(from + INSERT_BATCH_SIZE, recipients.size()));
+            List<Long> ids = insertBatch(event.getMessage(), chunk, taskId, now);
+            for (int i = 0; i < chunk.size(); i++) {
+                NotificationDTO dto = new NotificationDTO();
+                dto.setId(i < ids.size() ? ids.get(i) : null);
+                dto.setMessage(event.getMessage());
+                dto.setRead(false);
+                dto.setUserId(chunk.get(i));
+                dto.setTaskId(taskId);
+                dto.setTaskTitle(taskTitle);
+                dto.setCreatedAt(now);
+                created.add(dto);
+            }
+        }
+        delivered.increment(created.size());
+        return created;
+    }
+
+    private List<Long> insertBatch(String message, List<Long> userIds, Long taskId, LocalDateTime createdAt) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_NOTIFICATION, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, message);
+                        ps.setBoolean(2, false);
+                        ps.setLong(3, userIds.get(i));
+                        if (taskId != null) {
+                            ps.setLong(4, taskId);
+                        } else {
+                            ps.setNull(4, Types.BIGINT);
+                        }
+                        ps.setTimestamp(5, timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return userIds.size();
+                    }
+                },
+                keys);
+        List<Long> ids = new ArrayList<>(userIds.size());
+        for (Map<String, Object> row : keys.getKeyList()) {
+            Object id = row.values().iterator().next();
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    private List<Long> resolveRecipients(NotificationEvent event) {
+        if (event.getRecipientRole() != null) {
+            return userRepository.findIdsByUserRole(event.getRecipientRole());
+        }
+        if (event.getRecipientIds() == null || event.getRecipientIds().isEmpty()) {
+            return List.of();
+        }
+        List<Long> requested = new ArrayList<>();
+        for (String id : event.getRecipientIds().split(",")) {
+            requested.add(Long.valueOf(id.trim()));
+        }
+        // Ignorer les utilisateurs supprimés depuis l'enregistrement de l'événement
+        return userRepository.findExistingIds(requested);
+    }
+}
@@ -0,0 +1,258 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.dto.NotificationDTO;
+import com.taskapp.backend.repositories.NotificationRepository;
+import com.taskapp.backend.services.Projection.DtoAssembler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Boîte de réception en mémoire des utilisateurs actifs : les N notifications les plus récentes
+ * et les compteurs total / non lues. Chargée depuis la base au premier accès, tenue à jour après
+ * chaque commit par NotificationServiceImpl et le fan-out, puis libérée après une période d'inactivité.
+ * Le compteur de non lues et la première page de la cloche sont ainsi servis sans requête.
+ */
+@Component
+public class NotificationInbox {
+
+    private final NotificationRepository notificationRepository;
+    private final DtoAssembler dtoAssembler;
+    private final int capacity;
+    private final long idleMillis;
+    private final int maxUsers;
+
+    private final Map<Long, Inbox> inboxes = new ConcurrentHashMap<>();
+
+    public NotificationInbox(NotificationRepository notificationRepository,
+                             DtoAssembler dtoAssembler,
+                             @Value("${notifications.inbox.size:50}") int capacity,
+                             @Value("${notifications.inbox.idle-ms:900000}") long idleMillis,
+                             @Value("${notifications.inbox.max-users:10000}") int maxUsers) {
+        this.notificationRepository = notificationRepository;
+        this.dtoAssembler = dtoAssembler;
+        this.capacity = capacity;
+        this.idleMillis = idleMillis;
+        this.maxUsers = maxUsers;
+    }
+
+    public long countUnread(Long userId) {
+        return inbox(userId).unread();
+    }
+
+    // Première page servie depuis la mémoire si elle tient dans l'anneau, vide sinon
+    public Optional<Page<NotificationDTO>> firstPage(Long userId, int size) {
+        if (size <= 0 || size > capacity) {
+            return Optional.empty();
+        }
+        return inbox(userId).firstPage(size, false);
+    }
+
+    public Optional<Page<NotificationDTO>> firstUnreadPage(Long userId, int size) {
+        if (size <= 0 || size > capacity) {
+            return Optional.empty();
+        }
+        return inbox(userId).firstPage(size, true);
+    }
+
+    public void created(NotificationDTO notification) {
+        if (notification.getUserId() != null) {
+            TransactionUtils.afterCommit(() -> inboxes.computeIfPresent(notification.getUserId(), (id, inbox) -> {
+                inbox.add(notification);
+                return inbox;
+            }));
+        }
+    }
+
+    public void markedRead(Long userId, Long notificationId) {
+        TransactionUtils.afterCommit(() -> inboxes.computeIfPresent(userId, (id, inbox) -> {
+            inbox.markRead(notificationId);
+            return inbox;
+        }));
+    }
+
+    public void deleted(Long userId, Long notificationId, boolean wasUnread) {
+        // Si des notifications plus anciennes que l'anneau existent, il ne peut plus être complété : on le libère
+        TransactionUtils.afterCommit(() -> inboxes.computeIfPresent(userId,
+                (id, inbox) -> inbox.remove(notificationId, wasUnread) ? inbox : null));
+    }
+
+    // Après une écriture en masse, la boîte est rechargée depuis la base au prochain accès
+    public void invalidate(Long userId) {
+        TransactionUtils.afterCommit(() -> inboxes.remove(userId));
+    }
+
+    public void invalidateAll() {
+        TransactionUtils.afterCommit(inboxes::clear);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.inbox.evict-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        inboxes.values().removeIf(inbox -> inbox.lastAccess < cutoff);
+        int excess = inboxes.size() - maxUsers;
+        if (excess > 0) {
+            inboxes.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(inboxes::remove);
+        }
+    }
+
+    // L'entrée est créée vide (sans requête) pour que les modifications arrivant pendant le chargement
+    // la trouvent ; les requêtes s'exécutent ensuite hors de la map
+    private Inbox inbox(Long userId) {
+        Inbox inbox = inboxes.computeIfAbsent(userId, id -> new Inbox());
+        inbox.lastAccess = System.currentTimeMillis();
+        return inbox.isLoaded() ? inbox : load(userId, inbox);
+    }
+
+    private Inbox load(Long userId, Inbox inbox) {
+        long version = inbox.version();
+        List<NotificationDTO> recent = dtoAssembler.notifications(notificationRepository
+                .findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, capacity)).getContent());
+        return inbox.install(version, recent,
+                notificationRepository.countByUserId(userId),
+                notificationRepository.countByUserIdAndIsRead(userId, false));
+    }
+
+    private final class Inbox {
+        // Du plus récent au plus ancien
+        private Deque<NotificationDTO> recent;
+        private long total;
+        private long unread;
+        // Faux tant que la lecture en base n'est pas installée ; chaque modification reçue entre-temps
+        // incrémente version, ce qui écarte une lecture qui ne la reflète peut-être pas
+        private boolean loaded;
+        private long version;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Inbox() {
+            this.recent = new ArrayDeque<>();
+        }
+
+        private Inbox(List<NotificationDTO> recent, long total, long unread) {
+            this.recent = new ArrayDeque<>(recent);
+            this.total = total;
+            this.unread = unread;
+            this.loaded = true;
+        }
+
+        private synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        // Lecture dépassée par une modification : servie une fois sans être conservée, la suivante relira la base
+        private synchronized Inbox install(long readVersion, List<NotificationDTO> recent, long total, long unread) {
+            if (loaded) {
+                return this;
+            }
+            if (readVersion != version) {
+                return new Inbox(recent, total, unread);
+            }
+            this.recent = new ArrayDeque<>(recent);
+            this.total = total;
+            this.unread = unread;
+            this.loaded = true;
+            return this;
+        }
+
+        private synchronized long unread() {
+            return unread;
+        }
+
+        private synchronized Optional<Page<NotificationDTO>> firstPage(int size, boolean unreadOnly) {
+            List<NotificationDTO> content = new ArrayList<>(size);
+            for (NotificationDTO notification : recent) {
+                if (content.size() == size) {
+                    break;
+                }
+                if (!unreadOnly || !notification.isRead()) {
+                    content.add(notification);
+                }
+            }
+            long matching = unreadOnly ? unread : total;
+            // Page incomplète alors que la base contient d'autres lignes plus anciennes que l'anneau
+            if (content.size() < size && content.size() < matching) {
+                return Optional.empty();
+            }
+            return Optional.of(new PageImpl<>(content, PageRequest.of(0, size), matching));
+        }
+
+        private synchronized void add(NotificationDTO notification) {
+            if (!loaded) {
+                version++;
+                return;
+            }
+            for (NotificationDTO existing : recent) {
+                if (existing.getId() != null && existing.getId().equals(notification.getId())) {
+                    return;
+                }
+            }
+            recent.addFirst(notification);
+            if (recent.size() > capacity) {
+                recent.removeLast();
+            }
+            total++;
+            if (!notification.isRead()) {
+                unread++;
+            }
+        }
+
+        private synchronized void markRead(Long notificationId) {
+            if (!loaded) {
+                version++;
+                return;
+            }
+            unread = Math.max(0, unread - 1);
+            for (NotificationDTO notification : recent) {
+                if (Objects.equals(notification.getId(), notificationId)) {
+                    notification.setRead(true);
+                    return;
+                }
+            }
+        }
+
+        // false si l'anneau ne couvre plus toutes les notifications de l'utilisateur
+        private synchronized boolean remove(Long notificationId, boolean wasUnread) {
+            if (!loaded) {
+                version++;
+                return true;
+            }
+            boolean complete = total <= recent.size();
+            Iterator<NotificationDTO> iterator = recent.iterator();
+            while (iterator.hasNext()) {
+                if (Objects.equals(iterator.next().getId(), notificationId)) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            total = Math.max(0, total - 1);
+            if (wasUnread) {
+                unread = Math.max(0, unread - 1);
+            }
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.dto.NotificationDTO;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Pousse les notifications et les variations du nombre de non lues vers les sessions STOMP
+ * de leur destinataire (/user/queue/notifications et /user/queue/notifications/unread),
+ * après le commit, pour que le client n'ait plus à interroger l'API.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPublisher.class);
+
+    public static final String NOTIFICATIONS_QUEUE = "/queue/notifications";
+    public static final String UNREAD_QUEUE = "/queue/notifications/unread";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void created(NotificationDTO notification) {
+        if (notification.getUserId() == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            send(notification.getUserId(), NOTIFICATIONS_QUEUE, notification);
+            if (!notification.isRead()) {
+                send(notification.getUserId(), UNREAD_QUEUE, Map.of("delta", 1));
+            }
+        });
+    }
+
+    public void unreadChanged(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> send(userId, UNREAD_QUEUE, Map.of("delta", delta)));
+    }
+
+    // Sans session ouverte pour l'utilisateur, le message est simplement ignoré par le broker
+    private void send(Long userId, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), destination, payload);
+        } catch (MessagingException e) {
+            logger.warn("Could not push {} to user {}: {}", destination, userId, e.getMessage());
+        }
+    }
+}
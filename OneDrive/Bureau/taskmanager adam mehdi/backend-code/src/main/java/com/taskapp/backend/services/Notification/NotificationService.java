@@ -1,8 +1,12 @@
 package com.taskapp.backend.services.Notification;
 
+import com.taskapp.backend.dto.CursorPageDTO;
 import com.taskapp.backend.dto.NotificationDTO;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface NotificationService {
     NotificationDTO createNotification(String message, Long userId, Long taskId);
     NotificationDTO markAsRead(Long id);
@@ -10,7 +14,13 @@ public interface NotificationService {
     NotificationDTO getNotificationById(Long id);
     Page<NotificationDTO> getNotificationsByUser(Long userId, int page, int size);
     Page<NotificationDTO> getUnreadNotificationsByUser(Long userId, int page, int size);
+    CursorPageDTO<NotificationDTO> scrollNotificationsByUser(Long userId, String after, int size);
+    CursorPageDTO<NotificationDTO> scrollUnreadNotificationsByUser(Long userId, String after, int size);
     long countUnreadNotifications(Long userId);
+    int markAllAsRead(Long userId);
+    int markAsRead(Long userId, List<Long> ids);
+    int deleteReadNotifications(Long userId);
+    int deleteNotificationsOlderThan(Long userId, LocalDateTime before);
     void createTaskAssignmentNotification(Long taskId, Long assignedUserId);
     void createTaskUpdateNotification(Long taskId, String field, String oldValue, String newValue);
     void createLabelAddedNotification(Long taskId, Long labelId);
@@ -1,5 +1,8 @@
 package com.taskapp.backend.services.Notification;
 
+import com.taskapp.backend.Utils.KeysetCursor;
+import com.taskapp.backend.Utils.SecurityUtils;
+import com.taskapp.backend.dto.CursorPageDTO;
 import com.taskapp.backend.dto.NotificationDTO;
 import com.taskapp.backend.entities.Label;
 import com.taskapp.backend.entities.Notification;
@@ -10,13 +13,18 @@ import com.taskapp.backend.repositories.LabelRepository;
 import com.taskapp.backend.repositories.NotificationRepository;
 import com.taskapp.backend.repositories.TaskRepository;
 import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.services.Projection.DtoAssembler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +34,11 @@ public class NotificationServiceImpl implements NotificationService {
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
     private final LabelRepository labelRepository;
+    private final DtoAssembler dtoAssembler;
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationInbox notificationInbox;
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
 
     @Override
     @Transactional
@@ -46,7 +59,10 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setRead(false);
         notification.setCreatedAt(LocalDateTime.now());
         
-        return convertToDTO(notificationRepository.save(notification));
+        NotificationDTO created = dtoAssembler.notification(notificationRepository.save(notification));
+        notificationPublisher.created(created);
+        notificationInbox.created(created);
+        return created;
     }
 
     @Override
@@ -55,8 +71,14 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification non trouvée avec l'id: " + id));
         
+        // Mise à jour conditionnelle : de deux appels concurrents, un seul fait passer la ligne à lue
+        // et décrémente les compteurs
+        if (notificationRepository.markAsReadIfUnread(id) == 1 && notification.getUser() != null) {
+            notificationPublisher.unreadChanged(notification.getUser().getId(), -1);
+            notificationInbox.markedRead(notification.getUser().getId(), notification.getId());
+        }
         notification.setRead(true);
-        return convertToDTO(notificationRepository.save(notification));
+        return dtoAssembler.notification(notification);
     }
 
     @Override
@@ -65,6 +87,12 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification non trouvée avec l'id: " + id));
         
+        if (notification.getUser() != null) {
+            if (!notification.isRead()) {
+                notificationPublisher.unreadChanged(notification.getUser().getId(), -1);
+            }
+            notificationInbox.deleted(notification.getUser().getId(), notification.getId(), !notification.isRead());
+        }
         notificationRepository.delete(notification);
     }
 
@@ -73,26 +101,114 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification non trouvée avec l'id: " + id));
         
-        return convertToDTO(notification);
+        return dtoAssembler.notification(notification);
     }
 
     @Override
     public Page<NotificationDTO> getNotificationsByUser(Long userId, int page, int size) {
+        // Première page (cloche) servie par la boîte de réception en mémoire
+        if (page == 0) {
+            Optional<Page<NotificationDTO>> cached = notificationInbox.firstPage(userId, size);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Notification> notificationPage = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageRequest);
-        return notificationPage.map(this::convertToDTO);
+        return dtoAssembler.page(notificationPage, dtoAssembler::notifications);
     }
 
     @Override
     public Page<NotificationDTO> getUnreadNotificationsByUser(Long userId, int page, int size) {
+        if (page == 0) {
+            Optional<Page<NotificationDTO>> cached = notificationInbox.firstUnreadPage(userId, size);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Notification> notificationPage = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false, pageRequest);
-        return notificationPage.map(this::convertToDTO);
+        return dtoAssembler.page(notificationPage, dtoAssembler::notifications);
+    }
+
+    @Override
+    public CursorPageDTO<NotificationDTO> scrollNotificationsByUser(Long userId, String after, int size) {
+        Window<Notification> window = KeysetCursor.scroll(KeysetCursor.decode(after, "createdAt", "id"), KEYSET_SORT,
+                KeysetCursor.limit(size),
+                (position, sort, limit) -> notificationRepository.findByUserIdAndCreatedAtIsNotNull(userId, position, sort, limit),
+                (position, sort, limit) -> notificationRepository.findByUserIdAndCreatedAtIsNull(userId, position, sort, limit));
+        return CursorPageDTO.of(dtoAssembler.notifications(window.getContent()), window);
+    }
+
+    @Override
+    public CursorPageDTO<NotificationDTO> scrollUnreadNotificationsByUser(Long userId, String after, int size) {
+        Window<Notification> window = KeysetCursor.scroll(KeysetCursor.decode(after, "createdAt", "id"), KEYSET_SORT,
+                KeysetCursor.limit(size),
+                (position, sort, limit) -> notificationRepository.findByUserIdAndIsReadAndCreatedAtIsNotNull(userId, false, position, sort, limit),
+                (position, sort, limit) -> notificationRepository.findByUserIdAndIsReadAndCreatedAtIsNull(userId, false, position, sort, limit));
+        return CursorPageDTO.of(dtoAssembler.notifications(window.getContent()), window);
     }
 
     @Override
     public long countUnreadNotifications(Long userId) {
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return notificationInbox.countUnread(userId);
+    }
+
+    @Override
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        checkInboxOwner(userId);
+        int updated = notificationRepository.markAllAsRead(userId);
+        afterBulkChange(userId, -updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int markAsRead(Long userId, List<Long> ids) {
+        checkInboxOwner(userId);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        int updated = notificationRepository.markAsRead(userId, ids);
+        afterBulkChange(userId, -updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int deleteReadNotifications(Long userId) {
+        checkInboxOwner(userId);
+        int deleted = notificationRepository.deleteByUserIdAndIsRead(userId, true);
+        afterBulkChange(userId, 0);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int deleteNotificationsOlderThan(Long userId, LocalDateTime before) {
+        checkInboxOwner(userId);
+        // Deux suppressions pour connaître exactement le nombre de non lues retirées
+        int deletedUnread = notificationRepository.deleteOlderThan(userId, false, before);
+        int deletedRead = notificationRepository.deleteOlderThan(userId, true, before);
+        afterBulkChange(userId, -deletedUnread);
+        return deletedUnread + deletedRead;
+    }
+
+    // La boîte en mémoire est rechargée au prochain accès, le client reçoit la variation du compteur
+    private void afterBulkChange(Long userId, long unreadDelta) {
+        notificationInbox.invalidate(userId);
+        notificationPublisher.unreadChanged(userId, unreadDelta);
+    }
+
+    // Les opérations en masse sont réservées au destinataire et aux admins
+    private void checkInboxOwner(Long userId) {
+        org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        Long currentUserId = SecurityUtils.currentUserId(auth);
+        if (!isAdmin && !userId.equals(currentUserId)) {
+            throw new org.springframework.security.access.AccessDeniedException("Vous ne pouvez modifier que vos propres notifications");
+        }
     }
 
     @Override
@@ -166,16 +282,4 @@ public class NotificationServiceImpl implements NotificationService {
                 return field;
         }
     }
-
-    private NotificationDTO convertToDTO(Notification notification) {
-        NotificationDTO dto = new NotificationDTO();
-        dto.setId(notification.getId());
-        dto.setMessage(notification.getMessage());
-        dto.setRead(notification.isRead());
-        dto.setUserId(notification.getUser() != null ? notification.getUser().getId() : null);
-        dto.setTaskId(notification.getTask() != null ? notification.getTask().getId() : null);
-        dto.setTaskTitle(notification.getTask() != null ? notification.getTask().getTitle() : null);
-        dto.setCreatedAt(notification.getCreatedAt());
-        return dto;
-    }
 }
\ No newline at end of file
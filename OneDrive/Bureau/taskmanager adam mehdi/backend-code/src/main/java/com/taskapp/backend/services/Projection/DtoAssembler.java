@@ -0,0 +1,276 @@
+package com.taskapp.backend.services.Projection;
+
+import com.taskapp.backend.config.QueryCountInspector;
+import com.taskapp.backend.dto.AttachmentDTO;
+import com.taskapp.backend.dto.CommentDTO;
+import com.taskapp.backend.dto.LabelDTO;
+import com.taskapp.backend.dto.NotificationDTO;
+import com.taskapp.backend.dto.TaskDTO;
+import com.taskapp.backend.dto.TaskHistoryDTO;
+import com.taskapp.backend.entities.Attachment;
+import com.taskapp.backend.entities.Comment;
+import com.taskapp.backend.entities.Notification;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.TaskHistory;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.TaskLabelView;
+import com.taskapp.backend.repositories.projections.TaskTitleView;
+import com.taskapp.backend.repositories.projections.UserNameView;
+import com.taskapp.backend.services.Attachment.ThumbnailRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conversion des entités en DTO par lots. Les associations paresseuses ne sont jamais parcourues
+ * ligne par ligne : seuls les identifiants des proxys sont lus, puis chaque association est chargée
+ * par une seule requête IN. Une page coûte donc un nombre fixe de requêtes, quelle que soit sa taille ;
+ * le budget de chaque conversion est vérifié à l'aide de QueryCountInspector.
+ */
+@Component
+public class DtoAssembler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DtoAssembler.class);
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final boolean strictBudget;
+
+    public DtoAssembler(TaskRepository taskRepository, UserRepository userRepository,
+                        @Value("${projection.query-budget.strict:false}") boolean strictBudget) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.strictBudget = strictBudget;
+    }
+
+    public <E, D> Page<D> page(Page<E> page, Function<List<E>, List<D>> assembler) {
+        return new PageImpl<>(assembler.apply(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    // Étiquettes : 1 requête
+    public List<TaskDTO> tasks(List<Task> tasks) {
+        return withinBudget("tasks", 1, () -> {
+            Map<Long, Set<LabelDTO>> labelsByTask = new HashMap<>();
+            if (!tasks.isEmpty()) {
+                for (TaskLabelView row : taskRepository.findLabelsByTaskIds(ids(tasks, Task::getId))) {
+                    LabelDTO label = new LabelDTO();
+                    label.setId(row.getId());
+                    label.setName(row.getName());
+                    label.setColor(row.getColor());
+                    labelsByTask.computeIfAbsent(row.getTaskId(), id -> new HashSet<>()).add(label);
+                }
+            }
+            List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                TaskDTO dto = new TaskDTO();
+                dto.setId(task.getId());
+                dto.setTitle(task.getTitle());
+                dto.setDescription(task.getDescription());
+                dto.setDueDate(task.getDueDate());
+                dto.setStatus(task.getStatus());
+                dto.setPriority(task.getPriority());
+                dto.setAssignedToId(userId(task.getAssignedTo()));
+                dto.setCreatedById(userId(task.getCreatedBy()));
+                dto.setCreatedAt(task.getCreatedAt());
+                dto.setUpdatedAt(task.getUpdatedAt());
+                dto.setLabels(labelsByTask.get(task.getId()));
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    public TaskDTO task(Task task) {
+        return tasks(List.of(task)).get(0);
+    }
+
+    // Auteurs des envois : 1 requête
+    public List<AttachmentDTO> attachments(List<Attachment> attachments) {
+        return withinBudget("attachments", 1, () -> {
+            Map<Long, UserNameView> users = users(ids(attachments, a -> userId(a.getUploadedBy())));
+            List<AttachmentDTO> dtos = new ArrayList<>(attachments.size());
+            for (Attachment attachment : attachments) {
+                AttachmentDTO dto = new AttachmentDTO();
+                dto.setId(attachment.getId());
+                dto.setFileName(attachment.getFileName());
+                dto.setFileType(attachment.getFileType());
+                dto.setFileSize(attachment.getFileSize());
+                dto.setTaskId(attachment.getTask().getId());
+                UserNameView uploadedBy = users.get(userId(attachment.getUploadedBy()));
+                if (uploadedBy != null) {
+                    dto.setUploadedById(uploadedBy.getId());
+                    dto.setUploadedByName(uploadedBy.getEmail());
+                }
+                dto.setUploadedAt(attachment.getUploadedAt());
+                dto.setPreviewable(attachment.getContentHash() != null
+                        && ThumbnailRenderer.supports(attachment.getFileType()));
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    public AttachmentDTO attachment(Attachment attachment) {
+        return attachments(List.of(attachment)).get(0);
+    }
+
+    // Auteurs des commentaires : 1 requête
+    public List<CommentDTO> comments(List<Comment> comments) {
+        return withinBudget("comments", 1, () -> {
+            Map<Long, UserNameView> users = users(ids(comments, c -> userId(c.getCreatedBy())));
+            List<CommentDTO> dtos = new ArrayList<>(comments.size());
+            for (Comment comment : comments) {
+                CommentDTO dto = new CommentDTO();
+                dto.setId(comment.getId());
+                dto.setContent(comment.getContent());
+                dto.setTaskId(comment.getTask().getId());
+                // Identifiant lu sur le proxy du parent, sans le charger
+                dto.setParentId(comment.getParent() != null ? comment.getParent().getId() : null);
+                dto.setDepth(comment.getDepth());
+                dto.setReplyCount(comment.getReplyCount());
+                UserNameView createdBy = users.get(userId(comment.getCreatedBy()));
+                if (createdBy != null) {
+                    dto.setCreatedById(createdBy.getId());
+                    dto.setCreatedByName(createdBy.getEmail());
+                }
+                dto.setCreatedAt(comment.getCreatedAt());
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    public CommentDTO comment(Comment comment) {
+        return comments(List.of(comment)).get(0);
+    }
+
+    /**
+     * Arbre des commentaires d'une tâche à partir d'une liste où chaque parent précède ses réponses
+     * (ordre des chemins matérialisés) : l'arbre est assemblé en un seul parcours, sans toucher
+     * aux collections replies. Une réponse dont le parent est absent de la liste devient une racine.
+     */
+    public List<CommentDTO> commentTree(List<Comment> comments) {
+        List<CommentDTO> dtos = comments(comments);
+        Map<Long, CommentDTO> byId = new HashMap<>(dtos.size() * 2);
+        List<CommentDTO> roots = new ArrayList<>();
+        for (CommentDTO dto : dtos) {
+            byId.put(dto.getId(), dto);
+            CommentDTO parentDTO = dto.getParentId() != null ? byId.get(dto.getParentId()) : null;
+            if (parentDTO == null) {
+                roots.add(dto);
+                continue;
+            }
+            if (parentDTO.getReplies() == null) {
+                parentDTO.setReplies(new ArrayList<>());
+            }
+            parentDTO.getReplies().add(dto);
+        }
+        return roots;
+    }
+
+    // Titres des tâches : 1 requête
+    public List<NotificationDTO> notifications(List<Notification> notifications) {
+        return withinBudget("notifications", 1, () -> {
+            Map<Long, String> titles = new HashMap<>();
+            List<Long> taskIds = ids(notifications, n -> n.getTask() != null ? n.getTask().getId() : null);
+            if (!taskIds.isEmpty()) {
+                for (TaskTitleView row : taskRepository.findTitlesByIdIn(taskIds)) {
+                    titles.put(row.getId(), row.getTitle());
+                }
+            }
+            List<NotificationDTO> dtos = new ArrayList<>(notifications.size());
+            for (Notification notification : notifications) {
+                NotificationDTO dto = new NotificationDTO();
+                dto.setId(notification.getId());
+                dto.setMessage(notification.getMessage());
+                dto.setRead(notification.isRead());
+                dto.setUserId(userId(notification.getUser()));
+                Long taskId = notification.getTask() != null ? notification.getTask().getId() : null;
+                dto.setTaskId(taskId);
+                dto.setTaskTitle(taskId != null ? titles.get(taskId) : null);
+                dto.setCreatedAt(notification.getCreatedAt());
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    public NotificationDTO notification(Notification notification) {
+        return notifications(List.of(notification)).get(0);
+    }
+
+    // Auteurs des modifications : 1 requête
+    public List<TaskHistoryDTO> history(List<TaskHistory> entries) {
+        return withinBudget("history", 1, () -> {
+            Map<Long, UserNameView> users = users(ids(entries, h -> userId(h.getModifiedBy())));
+            List<TaskHistoryDTO> dtos = new ArrayList<>(entries.size());
+            for (TaskHistory history : entries) {
+                TaskHistoryDTO dto = new TaskHistoryDTO();
+                dto.setId(history.getId());
+                dto.setTaskId(history.getTask().getId());
+                UserNameView modifiedBy = users.get(userId(history.getModifiedBy()));
+                if (modifiedBy != null) {
+                    dto.setModifiedById(modifiedBy.getId());
+                    dto.setModifierName(modifiedBy.getFirstName() + " " + modifiedBy.getLastName());
+                }
+                dto.setField(history.getField());
+                dto.setOldValue(history.getOldValue());
+                dto.setNewValue(history.getNewValue());
+                dto.setModifiedAt(history.getModifiedAt());
+                dtos.add(dto);
+            }
+            return dtos;
+        });
+    }
+
+    private Map<Long, UserNameView> users(List<Long> userIds) {
+        Map<Long, UserNameView> users = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (UserNameView user : userRepository.findNamesByIdIn(userIds)) {
+                users.put(user.getId(), user);
+            }
+        }
+        return users;
+    }
+
+    // Lire l'identifiant d'un proxy Hibernate ne déclenche pas son chargement
+    private static Long userId(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static <E> List<Long> ids(List<E> rows, Function<E, Long> id) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (E row : rows) {
+            Long value = id.apply(row);
+            if (value != null) {
+                ids.add(value);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // Seuls les SELECT comptent : une écriture en attente peut être vidée (auto-flush) par la première lecture
+    private <T> T withinBudget(String what, int budget, Supplier<T> assembly) {
+        long before = QueryCountInspector.currentSelects();
+        T result = assembly.get();
+        long issued = QueryCountInspector.currentSelects() - before;
+        if (issued > budget) {
+            String message = "DTO assembly of " + what + " issued " + issued + " queries (budget " + budget
+                    + "): a lazy association is being loaded row by row";
+            if (strictBudget) {
+                throw new IllegalStateException(message);
+            }
+            logger.warn(message);
+        }
+        return result;
+    }
+}
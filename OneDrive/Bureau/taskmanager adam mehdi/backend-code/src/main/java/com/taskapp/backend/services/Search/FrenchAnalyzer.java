@@ -0,0 +1,80 @@
+package com.taskapp.backend.services.Search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Découpe un texte français en termes indexables : minuscules, suppression des accents,
+ * retrait des élisions (l', d', qu'...), des mots vides et des marques du pluriel.
+ * Le même traitement est appliqué aux documents et aux requêtes.
+ */
+public final class FrenchAnalyzer {
+
+    private static final Set<String> ELISIONS = Set.of(
+            "l", "d", "j", "m", "n", "s", "t", "c", "qu", "lorsqu", "puisqu", "jusqu", "quoiqu");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "le", "la", "les", "un", "une", "des", "du", "de", "et", "ou", "en", "au", "aux", "a",
+            "pour", "par", "sur", "dans", "avec", "sans", "ce", "ces", "cet", "cette", "est", "sont",
+            "que", "qui", "ne", "pas", "se", "sa", "son", "ses", "leur", "leurs", "il", "elle", "on",
+            "nous", "vous", "ils", "elles", "je", "tu", "y", "mais", "donc", "plus", "the", "of", "to", "and");
+
+    private FrenchAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.FRENCH), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .replace('’', '\'')
+                .replace('‘', '\'')
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+
+        int length = normalized.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else {
+                if (start >= 0) {
+                    String token = normalized.substring(start, i);
+                    // "l'equipe" : l'élision est retirée, seul "equipe" est conservé
+                    if (c == '\'' && ELISIONS.contains(token)) {
+                        start = -1;
+                        continue;
+                    }
+                    addTerm(terms, token);
+                    start = -1;
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (STOP_WORDS.contains(token)) {
+            return;
+        }
+        terms.add(stem(token));
+    }
+
+    // Racinisation minimale : retrait du pluriel en -s / -x pour rapprocher "tâches" de "tâche"
+    private static String stem(String token) {
+        int length = token.length();
+        if (length > 3 && (token.charAt(length - 1) == 's' || token.charAt(length - 1) == 'x')
+                && !Character.isDigit(token.charAt(length - 2))) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
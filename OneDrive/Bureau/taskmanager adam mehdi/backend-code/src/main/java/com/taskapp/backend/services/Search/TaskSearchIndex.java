@@ -0,0 +1,533 @@
+package com.taskapp.backend.services.Search;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.projections.TaskTextView;
+import com.taskapp.backend.services.Task.TaskSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Index inversé en mémoire sur le titre et la description des tâches, classé par BM25.
+ * Chaque terme de la requête est recherché par préfixe et doit être présent (ET logique).
+ * L'index est mis à jour après chaque écriture de tâche, sauvegardé périodiquement sur disque
+ * et, au redémarrage, rechargé puis complété avec les tâches modifiées depuis la sauvegarde
+ * (les tâches supprimées entre-temps sont retrouvées en comparant les ids avec la base).
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    public static final int TITLE = 0;
+    public static final int DESCRIPTION = 1;
+    private static final int FIELDS = 2;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int RECONCILE_BATCH_SIZE = 10_000;
+    private static final int SNAPSHOT_MAGIC = 0x54534958;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final TaskRepository taskRepository;
+    private final Path snapshotPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private IndexData current = new IndexData();
+    // Index en cours de reconstruction, alimenté en parallèle par les écritures
+    private IndexData building;
+    private volatile boolean ready;
+    private volatile boolean dirty;
+
+    public TaskSearchIndex(TaskRepository taskRepository,
+                           @Value("${search.index.dir:search-index}") String indexDir) {
+        this.taskRepository = taskRepository;
+        this.snapshotPath = Paths.get(indexDir, "tasks.idx");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Mise à jour incrémentale après le commit d'une écriture de tâche
+    public void onTaskChanged(TaskSnapshot before, TaskSnapshot after) {
+        if (after == null) {
+            if (before != null) {
+                TransactionUtils.afterCommit(() -> remove(before.id()));
+            }
+            return;
+        }
+        if (before != null && Objects.equals(before.title(), after.title())
+                && Objects.equals(before.description(), after.description())) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> index(after.id(), after.title(), after.description(), after.updatedAt()));
+    }
+
+    public void index(Long taskId, String title, String description, LocalDateTime updatedAt) {
+        DocEntry doc = DocEntry.of(title, description, toMillis(updatedAt));
+        lock.writeLock().lock();
+        try {
+            current.put(taskId, doc, false);
+            if (building != null) {
+                building.put(taskId, doc, false);
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            current.remove(taskId);
+            if (building != null) {
+                building.remove(taskId);
+                building.tombstones.add(taskId);
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Identifiants des tâches correspondantes, du plus pertinent au moins pertinent.
+     * Optional vide si aucune des deux requêtes ne contient de terme indexable.
+     */
+    public Optional<List<Long>> search(String titleQuery, String descriptionQuery, int limit) {
+        List<String> titleTerms = FrenchAnalyzer.analyze(titleQuery);
+        List<String> descriptionTerms = FrenchAnalyzer.analyze(descriptionQuery);
+        if (titleTerms.isEmpty() && descriptionTerms.isEmpty()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : titleTerms) {
+                scores = intersect(scores, current.score(TITLE, term));
+            }
+            for (String term : descriptionTerms) {
+                scores = intersect(scores, current.score(DESCRIPTION, term));
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()));
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reconstruction complète depuis la base, exécutée en arrière-plan
+    public void rebuildAsync() {
+        indexer.submit(this::rebuild);
+    }
+
+    public long rebuild() {
+        lock.writeLock().lock();
+        try {
+            building = new IndexData();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long indexed = 0;
+        try {
+            Long lastId = 0L;
+            List<TaskTextView> batch;
+            do {
+                batch = taskRepository.findTextAfterId(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                List<Map.Entry<Long, DocEntry>> docs = new ArrayList<>(batch.size());
+                for (TaskTextView task : batch) {
+                    docs.add(Map.entry(task.getId(),
+                            DocEntry.of(task.getTitle(), task.getDescription(), toMillis(task.getUpdatedAt()))));
+                    lastId = task.getId();
+                }
+                lock.writeLock().lock();
+                try {
+                    for (Map.Entry<Long, DocEntry> doc : docs) {
+                        building.put(doc.getKey(), doc.getValue(), true);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                indexed += docs.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                building.tombstones.clear();
+                current = building;
+                ready = true;
+                dirty = true;
+            } finally {
+                building = null;
+                lock.writeLock().unlock();
+            }
+            logger.info("Task search index rebuilt: {} tasks", indexed);
+            flush();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                building = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Task search index rebuild failed", e);
+        }
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        indexer.submit(() -> {
+            if (!loadSnapshot()) {
+                rebuild();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.flush-ms:300000}")
+    public void flushIfDirty() {
+        if (dirty) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+        if (ready && dirty) {
+            flush();
+        }
+    }
+
+    // Écrit l'index dans un fichier temporaire puis le renomme, pour ne jamais laisser de sauvegarde partielle
+    public synchronized void flush() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Files.createDirectories(snapshotPath.getParent());
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            lock.readLock().lock();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                dirty = false;
+                current.writeTo(out);
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Unable to save task search index: {}", e.getMessage());
+        }
+    }
+
+    private boolean loadSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+        IndexData loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(snapshotPath))))) {
+            loaded = IndexData.readFrom(in);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Task search index snapshot unreadable, rebuilding: {}", e.getMessage());
+            return false;
+        }
+
+        // Comme pendant une reconstruction, les écritures validées pendant le rattrapage sont aussi
+        // appliquées à l'index chargé : sinon elles n'iraient qu'à l'index vide remplacé ensuite
+        lock.writeLock().lock();
+        try {
+            building = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<TaskTextView> changed;
+        int deleted;
+        try {
+            // Rattraper les tâches créées ou modifiées depuis la sauvegarde
+            LocalDateTime watermark = LocalDateTime.ofInstant(Instant.ofEpochMilli(loaded.watermark()), ZoneId.systemDefault());
+            changed = taskRepository.findTextUpdatedSince(watermark);
+            deleted = removeDeleted(loaded);
+            lock.writeLock().lock();
+            try {
+                for (TaskTextView task : changed) {
+                    loaded.put(task.getId(),
+                            DocEntry.of(task.getTitle(), task.getDescription(), toMillis(task.getUpdatedAt())), true);
+                }
+                loaded.tombstones.clear();
+                current = loaded;
+                ready = true;
+                dirty = dirty || !changed.isEmpty() || deleted > 0;
+            } finally {
+                building = null;
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                building = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        logger.info("Task search index loaded: {} tasks, {} updated and {} deleted since snapshot",
+                loaded.docs.size(), changed.size(), deleted);
+        return true;
+    }
+
+    // Retire de l'index chargé les tâches absentes de la base : fusion des ids triés de l'index et de la base
+    // (l'index chargé reçoit déjà les écritures concurrentes : il n'est lu et modifié que sous le verrou)
+    private int removeDeleted(IndexData loaded) {
+        long[] indexed;
+        lock.readLock().lock();
+        try {
+            indexed = loaded.docs.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> deleted = new ArrayList<>();
+        int i = 0;
+        Long lastId = 0L;
+        List<Long> batch;
+        do {
+            batch = taskRepository.findIdsAfterId(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            for (Long id : batch) {
+                while (i < indexed.length && indexed[i] < id) {
+                    deleted.add(indexed[i++]);
+                }
+                if (i < indexed.length && indexed[i] == id) {
+                    i++;
+                }
+                lastId = id;
+            }
+        } while (batch.size() == RECONCILE_BATCH_SIZE && i < indexed.length);
+        while (i < indexed.length) {
+            deleted.add(indexed[i++]);
+        }
+        lock.writeLock().lock();
+        try {
+            deleted.forEach(loaded::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return deleted.size();
+    }
+
+    // ET logique : seuls les documents présents dans les deux ensembles sont conservés, scores additionnés
+    private Map<Long, Double> intersect(Map<Long, Double> scores, Map<Long, Double> clause) {
+        if (scores == null) {
+            return clause;
+        }
+        Map<Long, Double> result = new HashMap<>();
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            Double score = clause.get(entry.getKey());
+            if (score != null) {
+                result.put(entry.getKey(), entry.getValue() + score);
+            }
+        }
+        return result;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    private record DocEntry(Map<String, int[]> termFrequencies, int[] lengths, long updatedAt) {
+
+        static DocEntry of(String title, String description, long updatedAt) {
+            Map<String, int[]> frequencies = new HashMap<>();
+            int[] lengths = new int[FIELDS];
+            String[] fields = {title, description};
+            for (int field = 0; field < FIELDS; field++) {
+                for (String term : FrenchAnalyzer.analyze(fields[field])) {
+                    frequencies.computeIfAbsent(term, t -> new int[FIELDS])[field]++;
+                    lengths[field]++;
+                }
+            }
+            return new DocEntry(frequencies, lengths, updatedAt);
+        }
+    }
+
+    // Données de l'index ; toujours manipulées sous le verrou de TaskSearchIndex
+    private static final class IndexData {
+        private final TreeMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+        private final Map<Long, DocEntry> docs = new HashMap<>();
+        private final long[] totalLengths = new long[FIELDS];
+        private final Set<Long> tombstones = new HashSet<>();
+
+        // fromRebuild : une ligne lue pendant la reconstruction ne remplace pas une écriture plus récente
+        void put(Long id, DocEntry doc, boolean fromRebuild) {
+            DocEntry existing = docs.get(id);
+            if (fromRebuild && (tombstones.contains(id) || (existing != null && existing.updatedAt() > doc.updatedAt()))) {
+                return;
+            }
+            remove(id);
+            docs.put(id, doc);
+            for (int field = 0; field < FIELDS; field++) {
+                totalLengths[field] += doc.lengths()[field];
+            }
+            doc.termFrequencies().forEach((term, frequencies) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequencies));
+        }
+
+        void remove(Long id) {
+            DocEntry existing = docs.remove(id);
+            if (existing == null) {
+                return;
+            }
+            for (int field = 0; field < FIELDS; field++) {
+                totalLengths[field] -= existing.lengths()[field];
+            }
+            for (String term : existing.termFrequencies().keySet()) {
+                Map<Long, int[]> termDocs = postings.get(term);
+                if (termDocs != null) {
+                    termDocs.remove(id);
+                    if (termDocs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        // Score BM25 de chaque document pour un terme de requête (le meilleur des termes qu'il préfixe)
+        Map<Long, Double> score(int field, String prefix) {
+            Map<Long, Double> scores = new HashMap<>();
+            int totalDocs = docs.size();
+            if (totalDocs == 0) {
+                return scores;
+            }
+            double averageLength = Math.max(1.0, (double) totalLengths[field] / totalDocs);
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, int[]>> entry
+                    : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                Map<Long, int[]> termDocs = entry.getValue();
+                int documentFrequency = 0;
+                for (int[] frequencies : termDocs.values()) {
+                    if (frequencies[field] > 0) {
+                        documentFrequency++;
+                    }
+                }
+                if (documentFrequency == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (totalDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                for (Map.Entry<Long, int[]> posting : termDocs.entrySet()) {
+                    int frequency = posting.getValue()[field];
+                    if (frequency == 0) {
+                        continue;
+                    }
+                    int length = docs.get(posting.getKey()).lengths()[field];
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(posting.getKey(), score, Math::max);
+                }
+            }
+            return scores;
+        }
+
+        long watermark() {
+            long watermark = 0L;
+            for (DocEntry doc : docs.values()) {
+                watermark = Math.max(watermark, doc.updatedAt());
+            }
+            return watermark;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, DocEntry> entry : docs.entrySet()) {
+                DocEntry doc = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeLong(doc.updatedAt());
+                for (int field = 0; field < FIELDS; field++) {
+                    out.writeInt(doc.lengths()[field]);
+                }
+                out.writeInt(doc.termFrequencies().size());
+                for (Map.Entry<String, int[]> term : doc.termFrequencies().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    for (int field = 0; field < FIELDS; field++) {
+                        out.writeInt(term.getValue()[field]);
+                    }
+                }
+            }
+        }
+
+        static IndexData readFrom(DataInputStream in) throws IOException {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot format");
+            }
+            IndexData data = new IndexData();
+            int docCount = in.readInt();
+            for (int i = 0; i < docCount; i++) {
+                long id = in.readLong();
+                long updatedAt = in.readLong();
+                int[] lengths = new int[FIELDS];
+                for (int field = 0; field < FIELDS; field++) {
+                    lengths[field] = in.readInt();
+                }
+                int termCount = in.readInt();
+                Map<String, int[]> frequencies = new HashMap<>(termCount * 2);
+                for (int t = 0; t < termCount; t++) {
+                    String term = in.readUTF();
+                    int[] counts = new int[FIELDS];
+                    for (int field = 0; field < FIELDS; field++) {
+                        counts[field] = in.readInt();
+                    }
+                    frequencies.put(term, counts);
+                }
+                data.put(id, new DocEntry(frequencies, lengths, updatedAt), false);
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.taskapp.backend.services.Storage;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.repositories.StoredBlobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stockage des pièces jointes adressé par contenu : chaque fichier est rangé une seule fois sous
+ * son SHA-256, dans une arborescence blobs/ab/cd/&lt;hash&gt;, et compté dans stored_blob.
+ * Le fichier temporaire du multipart est déplacé (renommage) plutôt que recopié, puis lu une seule
+ * fois par un FileChannel pour calculer l'empreinte.
+ * La référence prise au rangement l'est dans la transaction de l'appelant (une seule connexion par
+ * envoi) : le verrou de ligne de stored_blob, tenu jusqu'au commit, empêche la suppression de la
+ * dernière référence de croiser le rangement. Les références sont rendues après le commit, sur le
+ * thread de nettoyage, sous un verrou par empreinte.
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transaction;
+    private final Path blobRoot;
+    private final Path stagingRoot;
+    // ReentrantLock plutôt que synchronized : pas d'épinglage des threads virtuels pendant les E/S
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Libérations en masse (suppression de tâches) traitées hors de la requête, dans l'ordre d'arrivée
+    private final ThreadPoolExecutor cleaner;
+
+    public BlobStore(StoredBlobRepository storedBlobRepository,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${file.upload-dir:uploads}") String uploadDir) throws IOException {
+        this.storedBlobRepository = storedBlobRepository;
+        // Rejoint la transaction de l'appelant s'il y en a une, sinon en ouvre une courte
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        Path root = Paths.get(uploadDir).toAbsolutePath();
+        this.blobRoot = Files.createDirectories(root.resolve("blobs"));
+        this.stagingRoot = Files.createDirectories(root.resolve("staging"));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // File non bornée : abandonner une libération laisserait un fichier orphelin
+        this.cleaner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "blob-cleanup");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("attachments.cleanup.pending", cleaner, executor -> executor.getQueue().size())
+                .description("Lots de fichiers en attente de libération")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdown();
+    }
+
+    public record StoredContent(String hash, Path path, long size) {
+    }
+
+    // Envoi multipart : Tomcat renomme son fichier temporaire vers la zone de transit (copie seulement s'il est en mémoire)
+    public StoredContent store(MultipartFile file) throws IOException {
+        Path staged = newStagingFile();
+        try {
+            file.transferTo(staged.toFile());
+            return storeStaged(staged);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    public Path newStagingFile() {
+        return stagingRoot.resolve(UUID.randomUUID() + ".part");
+    }
+
+    public Path stagingRoot() {
+        return stagingRoot;
+    }
+
+    /**
+     * Range un fichier de la zone de transit sous son empreinte et prend une référence dessus.
+     * La référence est prise dans la transaction appelante : si elle est annulée, la référence
+     * disparaît avec elle et le fichier rangé est supprimé s'il n'est plus référencé.
+     */
+    public StoredContent storeStaged(Path staged) throws IOException {
+        return storeStaged(staged, sha256(staged));
+    }
+
+    // Variante pour un fichier dont l'empreinte vient d'être calculée (et vérifiée) par l'appelant
+    public StoredContent storeStaged(Path staged, String hash) throws IOException {
+        long size = Files.size(staged);
+        Path target = pathOf(hash);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            transaction.executeWithoutResult(status -> storedBlobRepository.acquire(hash, size, LocalDateTime.now()));
+            try {
+                if (Files.exists(target)) {
+                    // Contenu déjà stocké : seule la référence est ajoutée
+                    Files.deleteIfExists(staged);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                releaseLocked(hash);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+        TransactionUtils.afterRollback(() -> cleaner.execute(() -> deleteIfOrphaned(hash)));
+        return new StoredContent(hash, target, size);
+    }
+
+    public Path pathOf(String hash) {
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // Fichier dérivé (miniature...) rangé à côté du blob : supprimé avec lui par deleteFiles
+    public Path variantPath(String hash, String variant) {
+        return pathOf(hash).resolveSibling(hash + "." + variant);
+    }
+
+    /**
+     * Range un fichier dérivé produit dans la zone de transit. Renvoie false (et supprime le fichier)
+     * si le blob a disparu entre-temps : sa dernière référence a été rendue pendant la génération.
+     */
+    public boolean storeVariant(String hash, String variant, Path staged) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (!Files.exists(pathOf(hash))) {
+                Files.deleteIfExists(staged);
+                return false;
+            }
+            Files.move(staged, variantPath(hash, variant), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // À appeler dans la transaction qui supprime l'Attachment : la référence n'est rendue qu'après le commit,
+    // sur le thread de nettoyage pour ne pas ouvrir une seconde connexion tant que la première est tenue
+    public void releaseAfterCommit(String hash) {
+        TransactionUtils.afterCommit(() -> cleaner.execute(() -> {
+            try {
+                release(hash);
+            } catch (RuntimeException e) {
+                logger.warn("Could not release blob {}: {}", hash, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Après le commit, rend une référence par empreinte (doublons compris) et supprime les fichiers
+     * antérieurs au stockage par contenu, sur le thread de nettoyage plutôt que sur celui de la requête.
+     */
+    public void releaseInBackgroundAfterCommit(List<String> hashes, List<Path> legacyFiles) {
+        if (hashes.isEmpty() && legacyFiles.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> cleaner.execute(() -> {
+            for (String hash : hashes) {
+                try {
+                    release(hash);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not release blob {}: {}", hash, e.getMessage());
+                }
+            }
+            for (Path file : legacyFiles) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Could not delete attachment file {}: {}", file, e.getMessage());
+                }
+            }
+        }));
+    }
+
+    public void release(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            releaseLocked(hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(String hash) {
+        Boolean unreferenced = transaction.execute(status -> {
+            storedBlobRepository.release(hash);
+            return storedBlobRepository.deleteIfUnreferenced(hash) > 0;
+        });
+        if (Boolean.TRUE.equals(unreferenced)) {
+            deleteFiles(hash);
+        }
+    }
+
+    /**
+     * Après l'annulation d'un rangement : supprime les fichiers si plus aucune ligne ne les référence.
+     * La lecture verrouillante attend un envoi concurrent du même contenu encore en cours, qui s'appuie
+     * peut-être sur le fichier déplacé par la transaction annulée.
+     */
+    private void deleteIfOrphaned(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Boolean orphaned = transaction.execute(status -> storedBlobRepository.findForUpdate(hash).isEmpty());
+            if (Boolean.TRUE.equals(orphaned)) {
+                deleteFiles(hash);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not clean up blob {}: {}", hash, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Supprime le blob et les fichiers dérivés rangés à côté de lui (<hash>.*)
+    private void deleteFiles(String hash) {
+        Path directory = pathOf(hash).getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, hash + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete blob {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
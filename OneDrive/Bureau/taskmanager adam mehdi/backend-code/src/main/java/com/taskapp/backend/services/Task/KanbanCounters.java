@@ -0,0 +1,105 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.projections.StatusCountView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nombre de tâches par colonne Kanban, pour le tableau global (admins) et pour chaque employé.
+ * Chaque périmètre est chargé une seule fois par un GROUP BY, puis ajusté incrémentalement
+ * après le commit de createTask / updateTask / deleteTask. Une resynchronisation périodique
+ * vide le cache pour rattraper les écritures faites hors de l'application.
+ */
+@Component
+@RequiredArgsConstructor
+public class KanbanCounters {
+
+    private static final Long ALL_TASKS = -1L;
+
+    private final TaskRepository taskRepository;
+
+    private final Map<Long, Map<String, AtomicLong>> countsByScope = new ConcurrentHashMap<>();
+
+    // assigneeId null = toutes les tâches
+    public Map<String, Long> getCounts(Long assigneeId) {
+        Long scope = assigneeId != null ? assigneeId : ALL_TASKS;
+        Map<String, AtomicLong> counts = countsByScope.computeIfAbsent(scope, this::load);
+        Map<String, Long> result = new HashMap<>();
+        counts.forEach((status, count) -> {
+            if (count.get() > 0) {
+                result.put(status, count.get());
+            }
+        });
+        return result;
+    }
+
+    // Tous les statuts déjà vus dans ce périmètre, même ceux dont le compteur est tombé à zéro
+    public Set<String> getStatuses(Long assigneeId) {
+        Long scope = assigneeId != null ? assigneeId : ALL_TASKS;
+        return new HashSet<>(countsByScope.computeIfAbsent(scope, this::load).keySet());
+    }
+
+    public void onTaskChanged(TaskSnapshot before, TaskSnapshot after) {
+        if (before != null && after != null
+                && Objects.equals(before.status(), after.status())
+                && Objects.equals(before.assigneeId(), after.assigneeId())) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            if (before != null) {
+                apply(before, -1);
+            }
+            if (after != null) {
+                apply(after, 1);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${kanban.counters.resync-ms:600000}")
+    public void resync() {
+        countsByScope.clear();
+    }
+
+    private void apply(TaskSnapshot snapshot, long delta) {
+        if (snapshot.status() == null) {
+            return;
+        }
+        increment(ALL_TASKS, snapshot.status(), delta);
+        if (snapshot.assigneeId() != null) {
+            increment(snapshot.assigneeId(), snapshot.status(), delta);
+        }
+    }
+
+    // Seuls les périmètres déjà chargés sont ajustés, les autres seront lus depuis la base au besoin
+    private void increment(Long scope, String status, long delta) {
+        Map<String, AtomicLong> counts = countsByScope.get(scope);
+        if (counts != null) {
+            counts.computeIfAbsent(status, s -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private Map<String, AtomicLong> load(Long scope) {
+        List<StatusCountView> rows = ALL_TASKS.equals(scope)
+                ? taskRepository.countGroupByStatus()
+                : taskRepository.countGroupByStatusForAssignee(scope);
+        Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+        for (StatusCountView row : rows) {
+            if (row.getStatus() != null) {
+                counts.put(row.getStatus(), new AtomicLong(row.getTotal()));
+            }
+        }
+        return counts;
+    }
+}
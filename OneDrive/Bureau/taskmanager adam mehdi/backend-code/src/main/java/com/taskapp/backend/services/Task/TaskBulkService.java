@@ -0,0 +1,12 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.dto.BulkTaskRequest;
+import com.taskapp.backend.dto.BulkTaskResultDTO;
+import com.taskapp.backend.entities.Task;
+
+import java.util.List;
+
+public interface TaskBulkService {
+    // Applique les modifications de la requête aux tâches sélectionnées (ou les compte seulement en dryRun)
+    BulkTaskResultDTO apply(List<Task> tasks, BulkTaskRequest request);
+}
@@ -0,0 +1,266 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.Utils.SecurityUtils;
+import com.taskapp.backend.dto.BulkTaskRequest;
+import com.taskapp.backend.dto.BulkTaskResultDTO;
+import com.taskapp.backend.entities.Label;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.exceptions.ResourceNotFoundException;
+import com.taskapp.backend.repositories.LabelRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.TaskLabelView;
+import com.taskapp.backend.services.Analytics.TaskRollupService;
+import com.taskapp.backend.services.Notification.NotificationFanoutService;
+import com.taskapp.backend.services.Search.TaskSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Modifications groupées (statut, assignation, étiquettes) sur un lot de tâches déjà sélectionné :
+ * une instruction UPDATE / DELETE par modification pour tout le lot, l'historique et les nouveaux
+ * liens d'étiquettes insérés par lots JDBC, et une seule notification par employé concerné au lieu
+ * d'une par tâche et par champ.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskBulkServiceImpl implements TaskBulkService {
+
+    private static final String INSERT_HISTORY =
+            "INSERT INTO task_history (task_id, modified_by_id, field, old_value, new_value, modified_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LABEL_LINK = "INSERT INTO task_labels (task_id, label_id) VALUES (?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final String UNASSIGNED = "non assigné";
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final LabelRepository labelRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationFanoutService notificationFanoutService;
+    private final KanbanCounters kanbanCounters;
+    private final TaskRollupService taskRollupService;
+    private final TaskSearchIndex taskSearchIndex;
+
+    @Override
+    @Transactional
+    public BulkTaskResultDTO apply(List<Task> tasks, BulkTaskRequest request) {
+        boolean changeStatus = request.getStatus() != null && !request.getStatus().isBlank();
+        boolean changeAssignee = request.isUnassign() || request.getAssignedToId() != null;
+        Set<Long> addLabelIds = request.getAddLabelIds() != null ? new LinkedHashSet<>(request.getAddLabelIds()) : Set.of();
+        Set<Long> removeLabelIds = new LinkedHashSet<>(request.getRemoveLabelIds() != null ? request.getRemoveLabelIds() : List.of());
+        // Une étiquette à la fois ajoutée et retirée est conservée : l'ajout l'emporte
+        removeLabelIds.removeAll(addLabelIds);
+        if (!changeStatus && !changeAssignee && addLabelIds.isEmpty() && removeLabelIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Aucune modification demandée");
+        }
+        Long newAssigneeId = request.isUnassign() ? null : request.getAssignedToId();
+        if (newAssigneeId != null && !userRepository.existsById(newAssigneeId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assigned user does not exist");
+        }
+        Map<Long, Label> labels = labelRepository.findAllById(union(addLabelIds, removeLabelIds)).stream()
+                .collect(Collectors.toMap(Label::getId, Function.identity()));
+        for (Long labelId : union(addLabelIds, removeLabelIds)) {
+            if (!labels.containsKey(labelId)) {
+                throw new ResourceNotFoundException("Étiquette non trouvée avec l'id: " + labelId);
+            }
+        }
+
+        // Calcul des changements réels à partir de l'état courant du lot
+        Map<Long, TaskSnapshot> before = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            before.put(task.getId(), TaskSnapshot.of(task));
+        }
+        // Ensembles ordonnés : l'appartenance est testée pour chaque tâche du lot
+        Set<Long> statusChanged = new LinkedHashSet<>();
+        Set<Long> assigneeChanged = new LinkedHashSet<>();
+        for (TaskSnapshot snapshot : before.values()) {
+            if (changeStatus && !request.getStatus().equals(snapshot.status())) {
+                statusChanged.add(snapshot.id());
+            }
+            if (changeAssignee && !Objects.equals(newAssigneeId, snapshot.assigneeId())) {
+                assigneeChanged.add(snapshot.id());
+            }
+        }
+        Map<Long, Set<Long>> currentLabels = new HashMap<>();
+        if (!addLabelIds.isEmpty() || !removeLabelIds.isEmpty()) {
+            for (TaskLabelView link : taskRepository.findLabelsByTaskIds(before.keySet())) {
+                currentLabels.computeIfAbsent(link.getTaskId(), id -> new HashSet<>()).add(link.getId());
+            }
+        }
+        List<long[]> linksToAdd = new ArrayList<>();
+        List<long[]> linksToRemove = new ArrayList<>();
+        for (Long taskId : before.keySet()) {
+            Set<Long> current = currentLabels.getOrDefault(taskId, Set.of());
+            for (Long labelId : addLabelIds) {
+                if (!current.contains(labelId)) {
+                    linksToAdd.add(new long[]{taskId, labelId});
+                }
+            }
+            for (Long labelId : removeLabelIds) {
+                if (current.contains(labelId)) {
+                    linksToRemove.add(new long[]{taskId, labelId});
+                }
+            }
+        }
+
+        Set<Long> affected = new LinkedHashSet<>(statusChanged);
+        affected.addAll(assigneeChanged);
+        linksToAdd.forEach(link -> affected.add(link[0]));
+        linksToRemove.forEach(link -> affected.add(link[0]));
+
+        BulkTaskResultDTO result = new BulkTaskResultDTO();
+        result.setDryRun(request.isDryRun());
+        result.setMatched(tasks.size());
+        result.setAffected(affected.size());
+        if (request.isDryRun() || affected.isEmpty()) {
+            return result;
+        }
+
+        // Écritures ensemblistes
+        LocalDateTime now = LocalDateTime.now();
+        if (!statusChanged.isEmpty()) {
+            taskRepository.updateStatus(statusChanged, request.getStatus(), now);
+        }
+        if (!assigneeChanged.isEmpty()) {
+            User assignee = newAssigneeId != null ? userRepository.getReferenceById(newAssigneeId) : null;
+            taskRepository.updateAssignee(assigneeChanged, assignee, now);
+        }
+        if (!linksToRemove.isEmpty()) {
+            Set<Long> removedFrom = new HashSet<>();
+            linksToRemove.forEach(link -> removedFrom.add(link[0]));
+            taskRepository.deleteLabelLinks(removedFrom, removeLabelIds);
+        }
+        if (!linksToAdd.isEmpty()) {
+            insertLabelLinks(linksToAdd);
+        }
+
+        // Historique : une ligne par tâche et par champ modifié, insérées par lots
+        Long actorId = SecurityUtils.currentUserId(SecurityContextHolder.getContext().getAuthentication());
+        List<Object[]> history = new ArrayList<>();
+        for (Long taskId : statusChanged) {
+            history.add(historyRow(taskId, actorId, "status", before.get(taskId).status(), request.getStatus(), now));
+        }
+        for (Long taskId : assigneeChanged) {
+            Long oldAssigneeId = before.get(taskId).assigneeId();
+            history.add(historyRow(taskId, actorId, "assignedTo",
+                    oldAssigneeId != null ? oldAssigneeId.toString() : UNASSIGNED,
+                    newAssigneeId != null ? newAssigneeId.toString() : UNASSIGNED, now));
+        }
+        for (long[] link : linksToAdd) {
+            history.add(historyRow(link[0], actorId, "labels", null, labels.get(link[1]).getName(), now));
+        }
+        for (long[] link : linksToRemove) {
+            history.add(historyRow(link[0], actorId, "labels", labels.get(link[1]).getName(), null, now));
+        }
+        insertHistory(history);
+        result.setHistoryEntries(history.size());
+
+        // Compteurs Kanban, agrégats et index de recherche
+        Map<Long, Integer> affectedByAssignee = new HashMap<>();
+        for (Long taskId : affected) {
+            TaskSnapshot previous = before.get(taskId);
+            boolean statusUpdated = statusChanged.contains(taskId);
+            boolean assigneeUpdated = assigneeChanged.contains(taskId);
+            TaskSnapshot next = new TaskSnapshot(taskId,
+                    statusUpdated ? request.getStatus() : previous.status(),
+                    previous.priority(),
+                    assigneeUpdated ? newAssigneeId : previous.assigneeId(),
+                    previous.createdAt(),
+                    previous.title(),
+                    previous.description(),
+                    statusUpdated || assigneeUpdated ? now : previous.updatedAt());
+            if (statusUpdated || assigneeUpdated) {
+                kanbanCounters.onTaskChanged(previous, next);
+                taskRollupService.onTaskChanged(previous, next);
+                taskSearchIndex.onTaskChanged(previous, next);
+            }
+            if (next.assigneeId() != null) {
+                affectedByAssignee.merge(next.assigneeId(), 1, Integer::sum);
+            }
+            // L'ancien employé est aussi prévenu des tâches qui lui sont retirées
+            if (assigneeUpdated && previous.assigneeId() != null) {
+                affectedByAssignee.merge(previous.assigneeId(), 1, Integer::sum);
+            }
+        }
+
+        // Une notification par employé, regroupée par message identique (distribuée après le commit)
+        String changes = describe(!statusChanged.isEmpty() ? request.getStatus() : null, !assigneeChanged.isEmpty(),
+                !linksToAdd.isEmpty() || !linksToRemove.isEmpty());
+        Map<String, List<Long>> recipientsByMessage = new LinkedHashMap<>();
+        affectedByAssignee.forEach((userId, count) -> recipientsByMessage
+                .computeIfAbsent(message(count, changes), key -> new ArrayList<>())
+                .add(userId));
+        recipientsByMessage.forEach((message, userIds) -> notificationFanoutService.notifyUsers(userIds, message, null));
+        result.setNotifiedUsers(affectedByAssignee.size());
+        return result;
+    }
+
+    private void insertHistory(List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_HISTORY, rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())),
+                    new int[]{Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+        }
+    }
+
+    private void insertLabelLinks(List<long[]> links) {
+        List<Object[]> rows = new ArrayList<>(links.size());
+        for (long[] link : links) {
+            rows.add(new Object[]{link[0], link[1]});
+        }
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_LABEL_LINK, rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private static Object[] historyRow(Long taskId, Long actorId, String field, String oldValue, String newValue,
+                                       LocalDateTime modifiedAt) {
+        return new Object[]{taskId, actorId, field, oldValue, newValue, Timestamp.valueOf(modifiedAt)};
+    }
+
+    private static String describe(String status, boolean reassigned, boolean relabeled) {
+        List<String> parts = new ArrayList<>();
+        if (status != null) {
+            parts.add("statut « " + status + " »");
+        }
+        if (reassigned) {
+            parts.add("assignation");
+        }
+        if (relabeled) {
+            parts.add("étiquettes");
+        }
+        return String.join(", ", parts);
+    }
+
+    private static String message(int count, String changes) {
+        return count == 1
+                ? "Une de vos tâches a été modifiée (" + changes + ")"
+                : count + " de vos tâches ont été modifiées (" + changes + ")";
+    }
+
+    private static Set<Long> union(Set<Long> first, Set<Long> second) {
+        Set<Long> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
@@ -0,0 +1,8 @@
+package com.taskapp.backend.services.Task;
+
+import java.util.Collection;
+
+public interface TaskDeletionService {
+    // Supprime les tâches existantes parmi ces ids avec leurs dépendances ; renvoie le nombre de tâches supprimées
+    int deleteTasks(Collection<Long> taskIds);
+}
@@ -0,0 +1,106 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.repositories.AttachmentRepository;
+import com.taskapp.backend.repositories.CommentRepository;
+import com.taskapp.backend.repositories.NotificationRepository;
+import com.taskapp.backend.repositories.TaskHistoryRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.projections.AttachmentFileView;
+import com.taskapp.backend.repositories.projections.UserUnreadCountView;
+import com.taskapp.backend.services.Analytics.TaskRollupService;
+import com.taskapp.backend.services.Notification.NotificationInbox;
+import com.taskapp.backend.services.Notification.NotificationPublisher;
+import com.taskapp.backend.services.Search.TaskSearchIndex;
+import com.taskapp.backend.services.Storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Suppression de tâches par instructions ensemblistes : quelques DELETE par lot de tâches, dans
+ * l'ordre des clés étrangères (notifications, commentaires, pièces jointes, historique, étiquettes,
+ * puis tâches), au lieu du chargement et de la suppression ligne à ligne par les cascades JPA.
+ * Les fichiers des pièces jointes sont libérés en arrière-plan après le commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskDeletionServiceImpl implements TaskDeletionService {
+
+    // Taille des listes IN (...) envoyées à la base
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationInbox notificationInbox;
+    private final NotificationPublisher notificationPublisher;
+    private final KanbanCounters kanbanCounters;
+    private final TaskRollupService taskRollupService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final BlobStore blobStore;
+
+    @Override
+    @Transactional
+    public int deleteTasks(Collection<Long> taskIds) {
+        List<Long> distinctIds = taskIds.stream().distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_BATCH_SIZE) {
+            deleted += deleteBatch(distinctIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, distinctIds.size())));
+        }
+        return deleted;
+    }
+
+    private int deleteBatch(List<Long> requestedIds) {
+        // Instantanés pour les compteurs Kanban, les agrégats et l'index de recherche
+        List<TaskSnapshot> snapshots = new ArrayList<>(requestedIds.size());
+        for (Task task : taskRepository.findAllById(requestedIds)) {
+            snapshots.add(TaskSnapshot.of(task));
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = snapshots.stream().map(TaskSnapshot::id).toList();
+
+        // Fichiers à libérer : une référence par pièce jointe, chemin direct pour les fichiers antérieurs au stockage par contenu
+        List<String> hashes = new ArrayList<>();
+        List<Path> legacyFiles = new ArrayList<>();
+        for (AttachmentFileView file : attachmentRepository.findFilesByTaskIds(ids)) {
+            if (file.getContentHash() != null) {
+                hashes.add(file.getContentHash());
+            } else if (file.getFilePath() != null) {
+                legacyFiles.add(Paths.get(file.getFilePath()));
+            }
+        }
+
+        // Après le commit, les boîtes de réception en mémoire des destinataires seront rechargées
+        // et chacun reçoit la baisse de son compteur de non lues
+        for (UserUnreadCountView recipient : notificationRepository.countUnreadByUserForTaskIds(ids)) {
+            notificationInbox.invalidate(recipient.getUserId());
+            notificationPublisher.unreadChanged(recipient.getUserId(), -recipient.getUnread());
+        }
+        notificationRepository.deleteByTaskIds(ids);
+        commentRepository.detachRepliesByTaskIds(ids);
+        commentRepository.deleteByTaskIds(ids);
+        attachmentRepository.deleteByTaskIds(ids);
+        taskHistoryRepository.deleteByTaskIds(ids);
+        taskRepository.deleteLabelLinksByTaskIds(ids);
+        int deleted = taskRepository.deleteByIds(ids);
+
+        for (TaskSnapshot snapshot : snapshots) {
+            kanbanCounters.onTaskChanged(snapshot, null);
+            taskRollupService.onTaskChanged(snapshot, null);
+            taskSearchIndex.onTaskChanged(snapshot, null);
+        }
+        blobStore.releaseInBackgroundAfterCommit(hashes, legacyFiles);
+        return deleted;
+    }
+}
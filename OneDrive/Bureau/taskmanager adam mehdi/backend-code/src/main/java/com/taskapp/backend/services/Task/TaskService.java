@@ -1,19 +1,34 @@
 package com.taskapp.backend.services.Task;
 
+import com.taskapp.backend.dto.BulkTaskRequest;
+import com.taskapp.backend.dto.BulkTaskResultDTO;
+import com.taskapp.backend.dto.CursorPageDTO;
+import com.taskapp.backend.dto.KanbanColumnDTO;
 import com.taskapp.backend.dto.TaskDTO;
 import com.taskapp.backend.dto.TaskHistoryDTO;
+import com.taskapp.backend.entities.Task;
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Map;
 
 public interface TaskService {
     TaskDTO createTask(TaskDTO taskDTO);
+    List<TaskDTO> createTasks(List<TaskDTO> taskDTOs);
     TaskDTO updateTask(Long id, TaskDTO taskDTO);
     void deleteTask(Long id);
+    int deleteTasks(List<Long> ids);
+    BulkTaskResultDTO bulkUpdate(BulkTaskRequest request);
     TaskDTO getTaskById(Long id);
     Page<TaskDTO> getAllTasks(int page, int size);
     Page<TaskDTO> getTasksByUser(Long userId, int page, int size);
+
+    // Variantes paginées par curseur (keyset), sans requête COUNT
+    CursorPageDTO<TaskDTO> scrollTasks(String after, int size);
+    CursorPageDTO<TaskDTO> scrollTasksByUser(Long userId, String after, int size);
+    CursorPageDTO<TaskHistoryDTO> scrollTaskHistory(Long taskId, String after, int size);
+    CursorPageDTO<TaskDTO> scrollSearchTasks(String title, String description, String status, String priority, List<Long> labelIds, String after, int size);
     
     // Méthodes pour la gestion des étiquettes
     void addLabelToTask(Long taskId, Long labelId);
@@ -24,10 +39,17 @@ public interface TaskService {
     
     // Méthodes pour la recherche avancée
     Page<TaskDTO> searchTasks(String title, String description, String status, String priority, List<Long> labelIds, int page, int size);
+    // Mêmes critères que searchTasks, sans plafond sur la correspondance plein texte, pour les traitements qui
+    // lisent les tâches eux-mêmes (export, opérations groupées) : une Specification par tranche d'ids croissants
+    List<Specification<Task>> searchSpecifications(String title, String description, String status, String priority, List<Long> labelIds);
+    void rebuildSearchIndex();
     
     // Méthodes pour les tableaux Kanban
     Map<String, List<TaskDTO>> getKanbanBoard();
+    Map<String, KanbanColumnDTO> getKanbanColumns(int size);
+    KanbanColumnDTO getKanbanColumn(String status, Long after, int size);
     
     // Méthodes pour les analyses et rapports
     Map<String, Object> getTaskAnalytics(String timeFrame);
+    long rebuildTaskAnalytics();
 }
\ No newline at end of file
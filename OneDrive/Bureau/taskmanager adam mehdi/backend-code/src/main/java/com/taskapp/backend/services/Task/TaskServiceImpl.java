@@ -8,23 +8,39 @@ import com.taskapp.backend.repositories.LabelRepository;
 import com.taskapp.backend.repositories.TaskRepository;
 import com.taskapp.backend.repositories.TaskHistoryRepository;
 import com.taskapp.backend.repositories.UserRepository;
-import com.taskapp.backend.dto.LabelDTO;
+import com.taskapp.backend.Utils.KeysetCursor;
+import com.taskapp.backend.Utils.SecurityUtils;
+import com.taskapp.backend.dto.BulkTaskRequest;
+import com.taskapp.backend.dto.BulkTaskResultDTO;
+import com.taskapp.backend.dto.CursorPageDTO;
+import com.taskapp.backend.dto.KanbanColumnDTO;
+import com.taskapp.backend.dto.SearchPageDTO;
 import com.taskapp.backend.dto.TaskDTO;
 import com.taskapp.backend.dto.TaskHistoryDTO;
 import com.taskapp.backend.exceptions.ResourceNotFoundException;
+import com.taskapp.backend.services.Analytics.TaskRollupService;
+import com.taskapp.backend.services.Notification.NotificationFanoutService;
 import com.taskapp.backend.services.Notification.NotificationService;
+import com.taskapp.backend.services.Projection.DtoAssembler;
+import com.taskapp.backend.services.Search.TaskSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,6 +53,30 @@ public class TaskServiceImpl implements TaskService {
     private final TaskHistoryRepository taskHistoryRepository;
     private final LabelRepository labelRepository;
     private final NotificationService notificationService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final KanbanCounters kanbanCounters;
+    private final TaskRollupService taskRollupService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final DtoAssembler dtoAssembler;
+    private final TaskDeletionService taskDeletionService;
+    private final TaskBulkService taskBulkService;
+
+    // Nombre maximal de tâches modifiables par une opération groupée
+    @Value("${tasks.bulk.max-tasks:5000}")
+    private int maxBulkTasks;
+
+    // Nombre maximal de tâches créées par POST /api/tasks/batch
+    @Value("${tasks.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    private static final List<String> KANBAN_COLUMNS = List.of("À FAIRE", "EN COURS", "EN REVUE", "TERMINÉ");
+    private static final int MAX_KANBAN_PAGE_SIZE = 100;
+    private static final Sort TASK_KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    // Nombre maximal de tâches retenues par la recherche plein texte avant filtrage et pagination
+    private static final int MAX_TEXT_MATCHES = 1000;
+    // Taille des tranches d'ids (clause IN) quand toute la correspondance plein texte est parcourue
+    private static final int TEXT_MATCH_CHUNK_SIZE = 1000;
+    private static final Sort HISTORY_KEYSET_SORT = Sort.by(Sort.Order.desc("modifiedAt"), Sort.Order.desc("id"));
 
     @Override
     @Transactional
@@ -46,11 +86,71 @@ public class TaskServiceImpl implements TaskService {
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
         Task savedTask = taskRepository.save(task);
+        onTaskChanged(null, TaskSnapshot.of(savedTask));
         // Notifier l'employé assigné si présent
         if (savedTask.getAssignedTo() != null) {
             notificationService.createTaskAssignmentNotification(savedTask.getId(), savedTask.getAssignedTo().getId());
         }
-        return convertToDTO(savedTask);
+        return dtoAssembler.task(savedTask);
+    }
+
+    @Override
+    @Transactional
+    public List<TaskDTO> createTasks(List<TaskDTO> taskDTOs) {
+        if (taskDTOs == null || taskDTOs.isEmpty()) {
+            return List.of();
+        }
+        if (taskDTOs.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trop de tâches dans le lot (max " + maxBatchSize + ")");
+        }
+        // Assignations vérifiées en une requête pour tout le lot
+        Set<Long> assigneeIds = taskDTOs.stream()
+                .map(TaskDTO::getAssignedToId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existing = assigneeIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(assigneeIds));
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            Long assignedToId = taskDTOs.get(i).getAssignedToId();
+            if (assignedToId != null && !existing.contains(assignedToId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assigned user does not exist (task " + i + ")");
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(taskDTOs.size());
+        for (TaskDTO taskDTO : taskDTOs) {
+            Task task = new Task();
+            task.setTitle(taskDTO.getTitle());
+            task.setDescription(taskDTO.getDescription());
+            task.setDueDate(taskDTO.getDueDate());
+            task.setStatus(taskDTO.getStatus());
+            task.setPriority(taskDTO.getPriority());
+            task.setAssignedTo(taskDTO.getAssignedToId() != null ? userRepository.getReferenceById(taskDTO.getAssignedToId()) : null);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        // Ids réservés par blocs : les INSERT partent par lots de hibernate.jdbc.batch_size au flush
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+
+        Map<Long, List<Task>> byAssignee = new LinkedHashMap<>();
+        for (Task task : savedTasks) {
+            TaskSnapshot snapshot = TaskSnapshot.of(task);
+            onTaskChanged(null, snapshot);
+            if (snapshot.assigneeId() != null) {
+                byAssignee.computeIfAbsent(snapshot.assigneeId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+        // Une notification par employé assigné, distribuée après le commit
+        byAssignee.forEach((userId, assigned) -> {
+            if (assigned.size() == 1) {
+                Task task = assigned.get(0);
+                notificationFanoutService.notifyUsers(List.of(userId), "Vous avez été assigné à la tâche: " + task.getTitle(), task.getId());
+            } else {
+                notificationFanoutService.notifyUsers(List.of(userId), assigned.size() + " nouvelles tâches vous ont été assignées", null);
+            }
+        });
+        return dtoAssembler.tasks(savedTasks);
     }
 
     @Override
@@ -58,12 +158,10 @@ public class TaskServiceImpl implements TaskService {
     public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        TaskSnapshot before = TaskSnapshot.of(task);
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try {
-            userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId();
-        } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         // Si employé, il ne peut modifier que le statut de ses tâches, et uniquement vers TERMINÉ
         if (!isAdmin) {
             if (task.getAssignedTo() == null || userId == null || task.getAssignedTo().getId() != userId) {
@@ -76,12 +174,10 @@ public class TaskServiceImpl implements TaskService {
             task.setStatus("TERMINÉ");
             task.setUpdatedAt(LocalDateTime.now());
             Task savedTask = taskRepository.save(task);
-            // Notifier tous les admins que la tâche a été terminée
-            List<User> admins = userRepository.findByUserRole(com.taskapp.backend.enums.UserRole.ADMIN);
-            for (User admin : admins) {
-                notificationService.createNotification("L'employé a terminé la tâche: " + task.getTitle(), admin.getId(), task.getId());
-            }
-            return convertToDTO(savedTask);
+            onTaskChanged(before, TaskSnapshot.of(savedTask));
+            // Notifier tous les admins que la tâche a été terminée (distribué après le commit)
+            notificationFanoutService.notifyRole(com.taskapp.backend.enums.UserRole.ADMIN, "L'employé a terminé la tâche: " + task.getTitle(), task.getId());
+            return dtoAssembler.task(savedTask);
         }
         // ADMIN : comportement normal
         // Sauvegarder l'état avant modification pour l'historique
@@ -94,18 +190,53 @@ public class TaskServiceImpl implements TaskService {
         updateTaskFromDTO(task, taskDTO);
         task.setUpdatedAt(LocalDateTime.now());
         Task savedTask = taskRepository.save(task);
+        onTaskChanged(before, TaskSnapshot.of(savedTask));
         // Envoyer une notification si l'assignation a changé
         if (assignmentChanged && newAssignedId != null) {
             notificationService.createTaskAssignmentNotification(savedTask.getId(), newAssignedId);
         }
-        return convertToDTO(savedTask);
+        return dtoAssembler.task(savedTask);
     }
     @Override
     @Transactional
     public void deleteTask(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
-        taskRepository.delete(task);
+        // Suppression ensembliste : commentaires, pièces jointes, historique, étiquettes et notifications
+        if (taskDeletionService.deleteTasks(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("Task not found with id: " + id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int deleteTasks(List<Long> ids) {
+        return taskDeletionService.deleteTasks(ids);
+    }
+
+    @Override
+    @Transactional
+    public BulkTaskResultDTO bulkUpdate(BulkTaskRequest request) {
+        List<Task> tasks;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().distinct().toList();
+            if (ids.size() > maxBulkTasks) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trop de tâches pour une opération groupée (max " + maxBulkTasks + ")");
+            }
+            tasks = taskRepository.findAllById(ids);
+        } else if (request.getFilter() != null) {
+            BulkTaskRequest.Filter filter = request.getFilter();
+            tasks = new ArrayList<>();
+            for (Specification<Task> spec : searchSpecifications(filter.getTitle(), filter.getDescription(),
+                    filter.getStatus(), filter.getPriority(), filter.getLabelIds())) {
+                // Une tâche de plus que la limite pour détecter le dépassement sans COUNT
+                tasks.addAll(taskRepository.findAll(spec, PageRequest.of(0, maxBulkTasks + 1 - tasks.size(), Sort.by("id"))).getContent());
+                if (tasks.size() > maxBulkTasks) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trop de tâches pour une opération groupée (max " + maxBulkTasks + ")");
+                }
+            }
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sélection requise : ids ou filter");
+        }
+        return taskBulkService.apply(tasks, request);
     }
 
     @Override
@@ -114,24 +245,18 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try {
-            userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId();
-        } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         if (!isAdmin && (task.getAssignedTo() == null || userId == null || task.getAssignedTo().getId() != userId)) {
             throw new org.springframework.security.access.AccessDeniedException("You are not allowed to access this task");
         }
-        return convertToDTO(task);
+        return dtoAssembler.task(task);
     }
 
     @Override
     public Page<TaskDTO> getAllTasks(int page, int size) {
         org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-        Long userId = null;
-        try {
-            userId = ((com.taskapp.backend.entities.User) auth.getPrincipal()).getId();
-        } catch (Exception e) { /* ignore */ }
+        Long userId = SecurityUtils.currentUserId(auth);
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Task> taskPage;
         if (isAdmin) {
@@ -139,14 +264,49 @@ public class TaskServiceImpl implements TaskService {
         } else {
             taskPage = taskRepository.findByAssignedToId(userId, pageRequest);
         }
-        return taskPage.map(this::convertToDTO);
+        return dtoAssembler.page(taskPage, dtoAssembler::tasks);
     }
 
     @Override
     public Page<TaskDTO> getTasksByUser(Long userId, int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Task> taskPage = taskRepository.findByAssignedToId(userId, pageRequest);
-        return taskPage.map(this::convertToDTO);
+        return dtoAssembler.page(taskPage, dtoAssembler::tasks);
+    }
+
+    @Override
+    public CursorPageDTO<TaskDTO> scrollTasks(String after, int size) {
+        Long scopeUserId = currentUserScope();
+        Specification<Task> spec = scopeUserId == null ? Specification.where(null) : assignedTo(scopeUserId);
+        return scrollTasks(spec, after, size);
+    }
+
+    @Override
+    public CursorPageDTO<TaskDTO> scrollTasksByUser(Long userId, String after, int size) {
+        return scrollTasks(assignedTo(userId), after, size);
+    }
+
+    // Pagination par clé (createdAt, id) : pas d'OFFSET ni de COUNT, quelle que soit la profondeur
+    private CursorPageDTO<TaskDTO> scrollTasks(Specification<Task> spec, String after, int size) {
+        Window<Task> window = KeysetCursor.scroll(KeysetCursor.decode(after, "createdAt", "id"), TASK_KEYSET_SORT,
+                KeysetCursor.limit(size),
+                (position, sort, limit) -> scroll(spec.and(createdAtNull(false)), position, sort, limit),
+                (position, sort, limit) -> scroll(spec.and(createdAtNull(true)), position, sort, limit));
+        return CursorPageDTO.of(dtoAssembler.tasks(window.getContent()), window);
+    }
+
+    private Window<Task> scroll(Specification<Task> spec, ScrollPosition position, Sort sort, Limit limit) {
+        return taskRepository.findBy(spec, query -> query.sortBy(sort).limit(limit.max()).scroll(position));
+    }
+
+    private Specification<Task> createdAtNull(boolean isNull) {
+        return (root, query, criteriaBuilder) -> isNull
+                ? criteriaBuilder.isNull(root.get("createdAt"))
+                : criteriaBuilder.isNotNull(root.get("createdAt"));
+    }
+
+    private Specification<Task> assignedTo(Long userId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("assignedTo").get("id"), userId);
     }
 
     private void updateTaskFromDTO(Task task, TaskDTO taskDTO) {
@@ -166,36 +326,11 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
-    private TaskDTO convertToDTO(Task task) {
-        TaskDTO dto = new TaskDTO();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setDueDate(task.getDueDate());
-        dto.setStatus(task.getStatus());
-        dto.setPriority(task.getPriority());
-        dto.setAssignedToId(task.getAssignedTo() != null ? task.getAssignedTo().getId() : null);
-        dto.setCreatedById(task.getCreatedBy() != null ? task.getCreatedBy().getId() : null);
-        dto.setCreatedAt(task.getCreatedAt());
-        dto.setUpdatedAt(task.getUpdatedAt());
-
-        // Convertir les étiquettes en DTO si elles existent
-        if (task.getLabels() != null && !task.getLabels().isEmpty()) {
-            Set<LabelDTO> labelDTOs = task.getLabels().stream()
-                    .map(this::convertLabelToDTO)
-                    .collect(Collectors.toSet());
-            dto.setLabels(labelDTOs);
-        }
-
-        return dto;
-    }
-
-    private LabelDTO convertLabelToDTO(Label label) {
-        LabelDTO dto = new LabelDTO();
-        dto.setId(label.getId());
-        dto.setName(label.getName());
-        dto.setColor(label.getColor());
-        return dto;
+    // Répercute une écriture sur les structures maintenues incrémentalement
+    private void onTaskChanged(TaskSnapshot before, TaskSnapshot after) {
+        kanbanCounters.onTaskChanged(before, after);
+        taskRollupService.onTaskChanged(before, after);
+        taskSearchIndex.onTaskChanged(before, after);
     }
 
     private void saveTaskHistory(Task task, TaskDTO taskDTO) {
@@ -312,32 +447,115 @@ public class TaskServiceImpl implements TaskService {
         Pageable pageable = PageRequest.of(page, size);
         Page<TaskHistory> historyPage = taskHistoryRepository.findByTaskIdOrderByModifiedAtDesc(taskId, pageable);
 
-        return historyPage.map(this::convertToHistoryDTO);
+        return dtoAssembler.page(historyPage, dtoAssembler::history);
     }
 
-    private TaskHistoryDTO convertToHistoryDTO(TaskHistory history) {
-        TaskHistoryDTO dto = new TaskHistoryDTO();
-        dto.setId(history.getId());
-        dto.setTaskId(history.getTask().getId());
-
-        if (history.getModifiedBy() != null) {
-            dto.setModifiedById(history.getModifiedBy().getId());
-            dto.setModifierName(history.getModifiedBy().getFirstName() + " " + history.getModifiedBy().getLastName());
+    @Override
+    public CursorPageDTO<TaskHistoryDTO> scrollTaskHistory(Long taskId, String after, int size) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Tâche non trouvée avec l'id: " + taskId);
         }
 
-        dto.setField(history.getField());
-        dto.setOldValue(history.getOldValue());
-        dto.setNewValue(history.getNewValue());
-        dto.setModifiedAt(history.getModifiedAt());
-
-        return dto;
+        Window<TaskHistory> window = KeysetCursor.scroll(KeysetCursor.decode(after, "modifiedAt", "id"), HISTORY_KEYSET_SORT,
+                KeysetCursor.limit(size),
+                (position, sort, limit) -> taskHistoryRepository.findByTaskIdAndModifiedAtIsNotNull(taskId, position, sort, limit),
+                (position, sort, limit) -> taskHistoryRepository.findByTaskIdAndModifiedAtIsNull(taskId, position, sort, limit));
+        return CursorPageDTO.of(dtoAssembler.history(window.getContent()), window);
     }
 
     @Override
     public Page<TaskDTO> searchTasks(String title, String description, String status, String priority,
                                      List<Long> labelIds, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
+        Optional<TextMatches> textMatches = searchByText(title, description);
+        if (textMatches.isEmpty()) {
+            Specification<Task> spec = buildSearchSpecification(title, description, status, priority, labelIds);
+            Page<Task> taskPage = taskRepository.findAll(spec, pageable);
+            return dtoAssembler.page(taskPage, dtoAssembler::tasks);
+        }
+
+        // Recherche plein texte : filtrer les candidats en base, puis les trier par pertinence
+        List<Long> ids = textMatches.get().ids();
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        Specification<Task> spec = buildSearchSpecification(null, null, status, priority, labelIds).and(idIn(ids));
+        List<Task> matches = new ArrayList<>(taskRepository.findAll(spec));
+        matches.sort(Comparator.comparing(task -> rank.get(task.getId())));
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new SearchPageDTO<>(dtoAssembler.tasks(matches.subList(from, to)), pageable, matches.size(),
+                textMatches.get().truncated());
+    }
+
+    @Override
+    public CursorPageDTO<TaskDTO> scrollSearchTasks(String title, String description, String status, String priority,
+                                                    List<Long> labelIds, String after, int size) {
+        Optional<TextMatches> textMatches = searchByText(title, description);
+        Specification<Task> spec = textMatches
+                .map(matches -> buildSearchSpecification(null, null, status, priority, labelIds).and(idIn(matches.ids())))
+                .orElseGet(() -> buildSearchSpecification(title, description, status, priority, labelIds));
+        CursorPageDTO<TaskDTO> page = scrollTasks(spec, after, size);
+        page.setTruncated(textMatches.map(TextMatches::truncated).orElse(false));
+        return page;
+    }
 
+    @Override
+    public List<Specification<Task>> searchSpecifications(String title, String description, String status,
+                                                          String priority, List<Long> labelIds) {
+        if ((!StringUtils.hasText(title) && !StringUtils.hasText(description)) || !taskSearchIndex.isReady()) {
+            return List.of(buildSearchSpecification(title, description, status, priority, labelIds));
+        }
+        Optional<List<Long>> matches = taskSearchIndex.search(title, description, Integer.MAX_VALUE);
+        if (matches.isEmpty()) {
+            return List.of(buildSearchSpecification(title, description, status, priority, labelIds));
+        }
+        List<Long> ids = new ArrayList<>(matches.get());
+        if (ids.isEmpty()) {
+            return List.of(idIn(ids));
+        }
+        ids.sort(null);
+        Specification<Task> filters = buildSearchSpecification(null, null, status, priority, labelIds);
+        List<Specification<Task>> specs = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += TEXT_MATCH_CHUNK_SIZE) {
+            specs.add(filters.and(idIn(ids.subList(from, Math.min(from + TEXT_MATCH_CHUNK_SIZE, ids.size())))));
+        }
+        return specs;
+    }
+
+    // Correspondance plein texte plafonnée à MAX_TEXT_MATCHES ; truncated si des tâches ont été écartées
+    private record TextMatches(List<Long> ids, boolean truncated) {
+    }
+
+    // Vide si aucun critère texte exploitable : les filtres LIKE servent alors de repli (index en construction)
+    private Optional<TextMatches> searchByText(String title, String description) {
+        if ((!StringUtils.hasText(title) && !StringUtils.hasText(description)) || !taskSearchIndex.isReady()) {
+            return Optional.empty();
+        }
+        // Une tâche de plus que le plafond pour détecter la troncature
+        return taskSearchIndex.search(title, description, MAX_TEXT_MATCHES + 1)
+                .map(ids -> ids.size() > MAX_TEXT_MATCHES
+                        ? new TextMatches(ids.subList(0, MAX_TEXT_MATCHES), true)
+                        : new TextMatches(ids, false));
+    }
+
+    private Specification<Task> idIn(List<Long> ids) {
+        return (root, query, criteriaBuilder) -> ids.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get("id").in(ids);
+    }
+
+    @Override
+    public void rebuildSearchIndex() {
+        taskSearchIndex.rebuildAsync();
+    }
+
+    private Specification<Task> buildSearchSpecification(String title, String description, String status,
+                                                         String priority, List<Long> labelIds) {
         Specification<Task> spec = Specification.where(null);
 
         // Filtrer par titre
@@ -372,33 +590,31 @@ public class TaskServiceImpl implements TaskService {
             });
         }
 
-        Page<Task> taskPage = taskRepository.findAll(spec, pageable);
-        return taskPage.map(this::convertToDTO);
+        return spec;
     }
 
     @Override
     public Map<String, List<TaskDTO>> getKanbanBoard() {
-        List<Task> allTasks = taskRepository.findAll();
-
-        // Grouper les tâches par statut
-        Map<String, List<TaskDTO>> kanbanBoard = new HashMap<>();
-
-        // Initialiser les colonnes du tableau Kanban
-        kanbanBoard.put("À FAIRE", new ArrayList<>());
-        kanbanBoard.put("EN COURS", new ArrayList<>());
-        kanbanBoard.put("EN REVUE", new ArrayList<>());
-        kanbanBoard.put("TERMINÉ", new ArrayList<>());
-
-        // Remplir les colonnes avec les tâches correspondantes
-        for (Task task : allTasks) {
-            String status = task.getStatus();
-            if (kanbanBoard.containsKey(status)) {
-                kanbanBoard.get(status).add(convertToDTO(task));
-            } else {
-                // Si le statut n'est pas l'un des statuts prédéfinis, l'ajouter à une nouvelle colonne
-                List<TaskDTO> taskList = new ArrayList<>();
-                taskList.add(convertToDTO(task));
-                kanbanBoard.put(status, taskList);
+        // Un employé ne voit que ses propres tâches
+        Long scopeUserId = currentUserScope();
+
+        // Chaque colonne est lue par pages de MAX_KANBAN_PAGE_SIZE sur (statut, id) plutôt qu'en un seul findAll
+        Map<String, List<TaskDTO>> kanbanBoard = new LinkedHashMap<>();
+        for (String status : kanbanStatuses(scopeUserId)) {
+            List<TaskDTO> column = new ArrayList<>();
+            long afterId = 0L;
+            List<Task> page;
+            do {
+                page = findKanbanPage(status, scopeUserId, afterId, MAX_KANBAN_PAGE_SIZE);
+                List<Task> visible = page.subList(0, Math.min(page.size(), MAX_KANBAN_PAGE_SIZE));
+                column.addAll(dtoAssembler.tasks(visible));
+                if (!visible.isEmpty()) {
+                    afterId = visible.get(visible.size() - 1).getId();
+                }
+            } while (page.size() > MAX_KANBAN_PAGE_SIZE);
+            // Les statuts inconnus n'ouvrent une colonne que s'ils contiennent des tâches
+            if (!column.isEmpty() || KANBAN_COLUMNS.contains(status)) {
+                kanbanBoard.put(status, column);
             }
         }
 
@@ -406,70 +622,100 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public Map<String, Object> getTaskAnalytics(String timeFrame) {
-        Map<String, Object> analytics = new HashMap<>();
-        List<Task> allTasks = taskRepository.findAll();
-
-        // Statistiques générales
-        analytics.put("totalTasks", allTasks.size());
-
-        // Tâches par statut
-        Map<String, Long> tasksByStatus = allTasks.stream()
-                .collect(Collectors.groupingBy(Task::getStatus, Collectors.counting()));
-        analytics.put("tasksByStatus", tasksByStatus);
-
-        // Tâches par priorité
-        Map<String, Long> tasksByPriority = allTasks.stream()
-                .collect(Collectors.groupingBy(Task::getPriority, Collectors.counting()));
-        analytics.put("tasksByPriority", tasksByPriority);
-
-        // Tâches par utilisateur assigné
-        Map<String, Long> tasksByUser = allTasks.stream()
-                .filter(task -> task.getAssignedTo() != null)
-                .collect(Collectors.groupingBy(
-                        task -> task.getAssignedTo().getFirstName() + " " + task.getAssignedTo().getLastName(),
-                        Collectors.counting()
-                ));
-        analytics.put("tasksByUser", tasksByUser);
-
-        // Filtrer les tâches en fonction de la période spécifiée
-        LocalDate startDate = null;
-        if ("week".equals(timeFrame)) {
-            startDate = LocalDate.now().minusWeeks(1);
-        } else if ("month".equals(timeFrame)) {
-            startDate = LocalDate.now().minusMonths(1);
-        } else if ("quarter".equals(timeFrame)) {
-            startDate = LocalDate.now().minusMonths(3);
-        } else {
-            // Par défaut, utiliser toutes les tâches
-            startDate = LocalDate.now().minusYears(10); // Une date suffisamment ancienne
+    public Map<String, KanbanColumnDTO> getKanbanColumns(int size) {
+        Long scopeUserId = currentUserScope();
+        int pageSize = Math.max(1, Math.min(size, MAX_KANBAN_PAGE_SIZE));
+        Map<String, Long> counts = kanbanCounters.getCounts(scopeUserId);
+
+        // Charger la première page de chaque colonne connue, puis toutes les étiquettes en une requête.
+        // La page est toujours lue : un compteur décalé ne doit pas masquer des tâches jusqu'à la resynchronisation.
+        Map<String, List<Task>> pages = new LinkedHashMap<>();
+        List<Task> allTasks = new ArrayList<>();
+        for (String status : kanbanStatuses(scopeUserId)) {
+            List<Task> page = findKanbanPage(status, scopeUserId, 0L, pageSize);
+            if (page.isEmpty() && !KANBAN_COLUMNS.contains(status)) {
+                continue;
+            }
+            pages.put(status, page);
+            allTasks.addAll(page.subList(0, Math.min(page.size(), pageSize)));
         }
+        Map<Long, TaskDTO> dtosById = dtoAssembler.tasks(allTasks).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, dto -> dto));
 
-        final LocalDate filterStartDate = startDate;
-        List<Task> filteredTasks = allTasks.stream()
-                .filter(task -> task.getCreatedAt().toLocalDate().isAfter(filterStartDate))
-                .collect(Collectors.toList());
-
-        // Tâches créées par jour/semaine/mois selon la période
-        Map<String, Long> tasksByDate = new HashMap<>();
-        DateTimeFormatter formatter;
+        Map<String, KanbanColumnDTO> board = new LinkedHashMap<>();
+        pages.forEach((status, page) -> board.put(status, buildKanbanColumn(status,
+                firstPageCount(counts.getOrDefault(status, 0L), page, pageSize), page, pageSize, dtosById)));
+        return board;
+    }
 
-        if ("week".equals(timeFrame)) {
-            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        } else if ("month".equals(timeFrame)) {
-            formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        } else {
-            formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+    @Override
+    public KanbanColumnDTO getKanbanColumn(String status, Long after, int size) {
+        Long scopeUserId = currentUserScope();
+        int pageSize = Math.max(1, Math.min(size, MAX_KANBAN_PAGE_SIZE));
+        List<Task> page = findKanbanPage(status, scopeUserId, after != null ? after : 0L, pageSize);
+        Map<Long, TaskDTO> dtosById = dtoAssembler.tasks(page.subList(0, Math.min(page.size(), pageSize))).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, dto -> dto));
+        long count = kanbanCounters.getCounts(scopeUserId).getOrDefault(status, 0L);
+        if (after == null) {
+            count = firstPageCount(count, page, pageSize);
         }
+        return buildKanbanColumn(status, count, page, pageSize, dtosById);
+    }
 
-        filteredTasks.forEach(task -> {
-            String dateKey = task.getCreatedAt().format(formatter);
-            tasksByDate.merge(dateKey, 1L, Long::sum);
-        });
+    // Le compteur ne sert qu'au total, borné par ce que la première page montre déjà
+    private static long firstPageCount(long counter, List<Task> page, int pageSize) {
+        return page.size() > pageSize ? Math.max(counter, pageSize + 1) : page.size();
+    }
 
-        analytics.put("tasksByDate", tasksByDate);
-        analytics.put("timeFrame", timeFrame != null ? timeFrame : "all");
+    // Colonnes fixes puis tout statut déjà rencontré dans le périmètre
+    private Set<String> kanbanStatuses(Long scopeUserId) {
+        Set<String> statuses = new LinkedHashSet<>(KANBAN_COLUMNS);
+        statuses.addAll(new TreeSet<>(kanbanCounters.getStatuses(scopeUserId)));
+        return statuses;
+    }
 
-        return analytics;
+    // Une ligne de plus que la taille demandée est lue pour savoir s'il reste une page
+    private List<Task> findKanbanPage(String status, Long scopeUserId, Long afterId, int pageSize) {
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        return scopeUserId == null
+                ? taskRepository.findKanbanColumn(status, afterId, limit)
+                : taskRepository.findKanbanColumnByAssignee(status, scopeUserId, afterId, limit);
+    }
+
+    private KanbanColumnDTO buildKanbanColumn(String status, long count, List<Task> page, int pageSize,
+                                              Map<Long, TaskDTO> dtosById) {
+        boolean hasMore = page.size() > pageSize;
+        List<Task> visible = hasMore ? page.subList(0, pageSize) : page;
+        KanbanColumnDTO column = new KanbanColumnDTO();
+        column.setStatus(status);
+        column.setCount(count);
+        column.setTasks(visible.stream().map(task -> dtosById.get(task.getId())).collect(Collectors.toList()));
+        column.setHasMore(hasMore);
+        column.setNextCursor(hasMore ? visible.get(visible.size() - 1).getId() : null);
+        return column;
+    }
+
+    // null pour un admin (toutes les tâches), sinon l'id de l'employé connecté
+    private Long currentUserScope() {
+        org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (isAdmin) {
+            return null;
+        }
+        Long userId = SecurityUtils.currentUserId(auth);
+        if (userId == null) {
+            throw new org.springframework.security.access.AccessDeniedException("You are not allowed to access these tasks");
+        }
+        return userId;
+    }
+
+    @Override
+    public Map<String, Object> getTaskAnalytics(String timeFrame) {
+        return taskRollupService.getTaskAnalytics(timeFrame);
+    }
+
+    @Override
+    public long rebuildTaskAnalytics() {
+        return taskRollupService.rebuild();
     }
 }
\ No newline at end of file
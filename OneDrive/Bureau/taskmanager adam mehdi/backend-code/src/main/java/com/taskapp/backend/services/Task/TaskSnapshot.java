@@ -0,0 +1,23 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.entities.Task;
+
+import java.time.LocalDateTime;
+
+// Copie immuable des champs d'une tâche utilisés par les structures maintenues incrémentalement
+// (compteurs Kanban, agrégats d'analyse, index de recherche...), capturée avant et après chaque écriture.
+public record TaskSnapshot(Long id, String status, String priority, Long assigneeId, LocalDateTime createdAt,
+                           String title, String description, LocalDateTime updatedAt) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(
+                task.getId(),
+                task.getStatus(),
+                task.getPriority(),
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : null,
+                task.getCreatedAt(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getUpdatedAt());
+    }
+}
@@ -16,5 +16,6 @@ public interface AdminService {
     UserDto updateUser(Long id, SignupRequest signupRequest);
     void deleteUser(Long id);
     UserDto updateUserRole(Long id, UserRole newRole);
+    void revokeUserTokens(Long id);
     Map<String, Object> searchUsers(int page, int size, String search, UserRole role);
 }
@@ -5,6 +5,9 @@ import com.taskapp.backend.dto.SignupRequest;
 import com.taskapp.backend.entities.User;
 import com.taskapp.backend.enums.UserRole;
 import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.services.jwt.TokenRevocationService;
+import com.taskapp.backend.services.jwt.TokenVersionRegistry;
+import com.taskapp.backend.services.jwt.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -29,6 +32,9 @@ public class AdminServiceImpl implements AdminService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationService tokenRevocationService;
 
     // Nouvelle méthode pour la recherche paginée
     public Map<String, Object> searchUsers(int page, int size, String search, UserRole role) {
@@ -106,13 +112,20 @@ public class AdminServiceImpl implements AdminService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already taken");
         }
 
+        // Un changement d'email ou de mot de passe invalide les jetons déjà émis
+        boolean credentialsChanged = !user.getEmail().equals(signupRequest.getEmail());
         user.setEmail(signupRequest.getEmail());
         user.setName(signupRequest.getName());
         if (signupRequest.getPassword() != null && !signupRequest.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
+            credentialsChanged = true;
         }
 
         User updatedUser = userRepository.save(user);
+        userDetailsCache.invalidate(updatedUser.getId());
+        if (credentialsChanged) {
+            tokenVersionRegistry.bump(updatedUser.getId());
+        }
         return updatedUser.getUserDto();
     }
 
@@ -122,6 +135,8 @@ public class AdminServiceImpl implements AdminService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
         userRepository.deleteById(id);
+        userDetailsCache.invalidate(id);
+        tokenVersionRegistry.revoke(id);
     }
 
     @Override
@@ -129,6 +144,7 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
+        UserRole previousRole = user.getUserRole();
         // Prevent changing the role of the last admin
         if (user.getUserRole() == UserRole.ADMIN && newRole == UserRole.EMPLOYEE) {
             long adminCount = userRepository.findAll().stream()
@@ -141,6 +157,20 @@ public class AdminServiceImpl implements AdminService {
 
         user.setUserRole(newRole);
         User updatedUser = userRepository.save(user);
+        userDetailsCache.invalidate(updatedUser.getId());
+        // Le rôle est porté par le jeton : l'utilisateur doit se reconnecter pour obtenir le nouveau
+        if (user.getUserRole() != previousRole) {
+            tokenVersionRegistry.bump(updatedUser.getId());
+        }
         return updatedUser.getUserDto();
     }
+
+    // Déconnecte l'utilisateur de toutes ses sessions : les jetons déjà émis sont refusés
+    @Override
+    public void revokeUserTokens(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        tokenRevocationService.revokeAllForUser(id);
+    }
 }
@@ -0,0 +1,11 @@
+package com.taskapp.backend.services.auth;
+
+import com.taskapp.backend.dto.AuthenticationRequest;
+import com.taskapp.backend.dto.AuthenticationResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface LoginService {
+    CompletableFuture<AuthenticationResponse> login(AuthenticationRequest authenticationRequest);
+    void logout(String jwt);
+}
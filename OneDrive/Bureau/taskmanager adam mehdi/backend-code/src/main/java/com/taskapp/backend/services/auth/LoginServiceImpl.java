@@ -0,0 +1,152 @@
+package com.taskapp.backend.services.auth;
+
+import com.taskapp.backend.Utils.JwtUtil;
+import com.taskapp.backend.dto.AuthenticationRequest;
+import com.taskapp.backend.dto.AuthenticationResponse;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.services.jwt.TokenRevocationService;
+import com.taskapp.backend.services.jwt.TokenVersionRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connexion en une seule lecture de l'utilisateur. La vérification BCrypt, volontairement coûteuse,
+ * s'exécute sur un pool dédié et borné plutôt que sur les threads Tomcat : lors d'un pic de connexions,
+ * les autres endpoints restent servis et les connexions en excès sont refusées immédiatement (503)
+ * au lieu de s'accumuler.
+ */
+@Service
+public class LoginServiceImpl implements LoginService {
+
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationService tokenRevocationService;
+    private final ThreadPoolExecutor hashers;
+    // Comparé quand l'email est inconnu, pour que la durée de la réponse ne révèle pas les comptes existants
+    private final String unknownUserHash;
+
+    private final Timer latency;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public LoginServiceImpl(UserRepository userRepository,
+                            BCryptPasswordEncoder passwordEncoder,
+                            JwtUtil jwtUtil,
+                            TokenVersionRegistry tokenVersionRegistry,
+                            TokenRevocationService tokenRevocationService,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.login.threads:0}") int threads,
+                            @Value("${auth.login.queue-capacity:64}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenRevocationService = tokenRevocationService;
+        this.unknownUserHash = passwordEncoder.encode("unknown-user");
+
+        this.latency = Timer.builder("auth.login.latency")
+                .description("Durée totale d'une connexion, attente dans la file comprise")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Attente d'une vérification de mot de passe avant son exécution")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.login.rejected")
+                .description("Connexions refusées car la file de vérification était pleine")
+                .register(meterRegistry);
+
+        // BCrypt est lié au CPU : par défaut un thread plateforme par cœur, y compris en profil "virtual"
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.login.queue.depth", hashers, executor -> executor.getQueue().size())
+                .description("Vérifications de mot de passe en attente d'un thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", hashers, ThreadPoolExecutor::getActiveCount)
+                .description("Vérifications de mot de passe en cours")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<AuthenticationResponse> login(AuthenticationRequest authenticationRequest) {
+        long start = System.nanoTime();
+        User user = userRepository.findFirstByEmail(authenticationRequest.getEmail()).orElse(null);
+        String password = authenticationRequest.getPassword() != null ? authenticationRequest.getPassword() : "";
+
+        CompletableFuture<AuthenticationResponse> result = new CompletableFuture<>();
+        try {
+            hashers.execute(() -> {
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                try {
+                    boolean matches = passwordEncoder.matches(password, user != null ? user.getPassword() : unknownUserHash);
+                    if (user == null || !matches) {
+                        result.completeExceptionally(new BadCredentialsException("Incorrect username or password"));
+                    } else {
+                        result.complete(authenticated(user));
+                    }
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many login attempts, please retry");
+        }
+        return result;
+    }
+
+    // Révoque le jeton présenté ; un jeton invalide ou expiré n'a rien à révoquer
+    @Override
+    public void logout(String jwt) {
+        tokenRevocationService.revoke(jwtUtil.verify(jwt));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdown();
+    }
+
+    private AuthenticationResponse authenticated(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", user.getUserRole().name());
+        // Id et version de jeton : permettent au filtre d'authentifier sans recharger l'utilisateur
+        claims.put("uid", user.getId());
+        claims.put("ver", tokenVersionRegistry.version(user.getId()));
+
+        AuthenticationResponse authenticationResponse = new AuthenticationResponse();
+        authenticationResponse.setJwt(jwtUtil.generateToken(claims, user));
+        authenticationResponse.setUserId(user.getId());
+        authenticationResponse.setUserRole(user.getUserRole());
+        return authenticationResponse;
+    }
+}
@@ -0,0 +1,9 @@
+package com.taskapp.backend.services.jwt;
+
+import io.jsonwebtoken.Claims;
+
+public interface TokenRevocationService {
+    void revoke(Claims claims);
+    void revokeAllForUser(Long userId);
+    boolean isRevoked(String jti);
+}
@@ -0,0 +1,135 @@
+package com.taskapp.backend.services.jwt;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.entities.RevokedToken;
+import com.taskapp.backend.repositories.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Révocation des jetons. La déconnexion révoque un jeton précis (claim jti) ; la révocation de tous
+ * les jetons d'un utilisateur passe par TokenVersionRegistry. Le filtre JWT ne consulte que le filtre
+ * de Bloom en mémoire : l'ensemble exact n'est lu que sur un résultat positif, et la table revoked_token
+ * ne sert qu'à survivre au redémarrage et à partager les révocations entre instances.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedEntries;
+
+    // jti -> expiration (epoch ms) des jetons révoqués et non encore expirés
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private final Counter falsePositives;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      TokenVersionRegistry tokenVersionRegistry,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${auth.revocation.expected-entries:100000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        this.falsePositives = Counter.builder("auth.revocation.false-positives")
+                .description("Jetons signalés par le filtre de Bloom mais absents de la liste de révocation")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.size", revoked, Map::size)
+                .description("Jetons révoqués non expirés tenus en mémoire")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void revoke(Claims claims) {
+        if (claims == null || claims.getId() == null) {
+            return;
+        }
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : System.currentTimeMillis() + 24L * 60 * 60 * 1000;
+        RevokedToken token = new RevokedToken();
+        token.setJti(claims.getId());
+        Object uid = claims.get("uid");
+        token.setUserId(uid instanceof Number number ? number.longValue() : null);
+        token.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()));
+        token.setRevokedAt(LocalDateTime.now());
+        revokedTokenRepository.save(token);
+        TransactionUtils.afterCommit(() -> add(claims.getId(), expiresAt));
+    }
+
+    // Tous les jetons déjà émis portent une version périmée et sont refusés par le filtre JWT
+    @Override
+    public void revokeAllForUser(Long userId) {
+        tokenVersionRegistry.bump(userId);
+    }
+
+    // Purge les jetons expirés, recharge les révocations des autres instances et reconstruit le filtre
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-ms:300000}", initialDelayString = "${auth.revocation.purge-ms:300000}")
+    public void purgeAndReload() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.deleteExpired(now));
+        Map<String, Long> loaded = new ConcurrentHashMap<>();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            loaded.put(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        synchronized (this) {
+            long nowMillis = System.currentTimeMillis();
+            // Les révocations validées depuis la lecture sont conservées
+            revoked.entrySet().removeIf(entry -> entry.getValue() <= nowMillis);
+            revoked.putAll(loaded);
+            rebuild();
+        }
+    }
+
+    private synchronized void add(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+        // Au-delà de la capacité prévue, le taux de faux positifs se dégrade : on redimensionne
+        if (revoked.size() > expectedEntries) {
+            rebuild();
+        } else {
+            filter.add(jti);
+        }
+    }
+
+    // Appelé sous le verrou de l'instance ; les lecteurs continuent sur l'ancien filtre jusqu'au remplacement
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
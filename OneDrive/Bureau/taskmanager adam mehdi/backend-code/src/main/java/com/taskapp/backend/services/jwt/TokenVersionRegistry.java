@@ -0,0 +1,79 @@
+package com.taskapp.backend.services.jwt;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.UserTokenVersionView;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version de jeton courante de chaque utilisateur, tenue en mémoire (un entier par utilisateur).
+ * Chaque JWT porte la version en vigueur à sa création (claim "ver") : incrémenter la version
+ * invalide tous les jetons déjà émis sans que le filtre ait besoin de lire la base.
+ * La map est rechargée périodiquement pour suivre les changements faits par les autres instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    // Version des utilisateurs supprimés : aucun jeton ne peut la porter
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+
+    private volatile Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${auth.token-version.refresh-ms:60000}", initialDelayString = "${auth.token-version.refresh-ms:60000}")
+    public void refresh() {
+        Map<Long, Integer> loaded = new ConcurrentHashMap<>();
+        for (UserTokenVersionView view : userRepository.findTokenVersions()) {
+            loaded.put(view.getId(), view.getTokenVersion());
+        }
+        // Les versions ne font que croître : une incrémentation validée pendant le rechargement n'est pas perdue
+        versions.forEach((id, version) -> loaded.computeIfPresent(id, (key, current) -> Math.max(current, version)));
+        versions = loaded;
+    }
+
+    // Version courante ; un utilisateur inconnu de la map (créé depuis le dernier rechargement) est lu une fois
+    public int version(long userId) {
+        Integer version = versions.get(userId);
+        if (version == null) {
+            Integer stored = userRepository.findTokenVersion(userId);
+            version = stored != null ? stored : REVOKED;
+            versions.putIfAbsent(userId, version);
+        }
+        return version;
+    }
+
+    // Claims "uid" et "ver" d'un jeton : un jeton sans l'un ou l'autre (émis avant les versions) est refusé,
+    // sinon il échapperait aux changements de rôle et aux déconnexions forcées jusqu'à son expiration
+    public boolean isCurrent(Number userId, Number tokenVersion) {
+        return userId != null && tokenVersion != null && isCurrent(userId.longValue(), tokenVersion.intValue());
+    }
+
+    public boolean isCurrent(long userId, int tokenVersion) {
+        int current = version(userId);
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    // Invalide tous les jetons de l'utilisateur : il devra se reconnecter
+    @Transactional
+    public void bump(long userId) {
+        userRepository.incrementTokenVersion(userId);
+        Integer version = userRepository.findTokenVersion(userId);
+        if (version != null) {
+            TransactionUtils.afterCommit(() -> versions.put(userId, version));
+        }
+    }
+
+    public void revoke(long userId) {
+        TransactionUtils.afterCommit(() -> versions.put(userId, REVOKED));
+    }
+}
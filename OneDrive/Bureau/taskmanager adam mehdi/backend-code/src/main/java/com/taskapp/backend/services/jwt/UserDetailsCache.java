@@ -0,0 +1,112 @@
+package com.taskapp.backend.services.jwt;
+
+import com.taskapp.backend.Utils.TransactionUtils;
+import com.taskapp.backend.entities.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Utilisateurs authentifiés par JWT, indexés par email, pour que JwtAuthenticationFilter
+ * ne refasse pas un SELECT à chaque requête. Les entrées expirent après un TTL et sont retirées
+ * explicitement quand un admin modifie, change le rôle ou supprime l'utilisateur.
+ * Un chargement commencé avant une invalidation ne remet pas l'ancien utilisateur en cache (numéro
+ * de génération) ; au-delà de maxEntries, les entrées les moins récemment utilisées sont retirées.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Map<String, CachedUser> usersByEmail = new ConcurrentHashMap<>();
+    // Incrémentée à chaque invalidation : un chargement qui l'a vue changer ne garde pas son résultat
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${auth.user-cache.ttl-ms:300000}") long ttlMillis,
+                            @Value("${auth.user-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("auth.user.cache").tag("result", "hit")
+                .description("Utilisateurs servis par le cache du filtre JWT")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.user.cache").tag("result", "miss")
+                .description("Utilisateurs chargés depuis la base par le filtre JWT")
+                .register(meterRegistry);
+        Gauge.builder("auth.user.cache.size", usersByEmail, Map::size).register(meterRegistry);
+    }
+
+    public User get(String email, Function<String, User> loader) {
+        long now = System.currentTimeMillis();
+        CachedUser cached = usersByEmail.get(email);
+        if (cached != null && cached.expiresAt > now) {
+            cached.lastAccess = now;
+            hits.increment();
+            return cached.user;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        User user = loader.apply(email);
+        if (usersByEmail.size() >= maxEntries) {
+            evict(now);
+        }
+        CachedUser entry = new CachedUser(user, now + ttlMillis, now);
+        usersByEmail.put(email, entry);
+        // Invalidation pendant le chargement : l'utilisateur lu est peut-être périmé. Vérifié après la mise
+        // en cache pour qu'une invalidation concurrente retire l'entrée, soit ici, soit dans invalidate
+        if (generation.get() != loadedAt) {
+            usersByEmail.remove(email, entry);
+        }
+        return user;
+    }
+
+    // Retire l'utilisateur après le commit, quel que soit l'email sous lequel il a été mis en cache
+    public void invalidate(long userId) {
+        TransactionUtils.afterCommit(() -> {
+            generation.incrementAndGet();
+            usersByEmail.values().removeIf(entry -> entry.user.getId() == userId);
+        });
+    }
+
+    // Entrées expirées, puis les moins récemment utilisées (un dixième de la capacité) pour espacer les évictions
+    private synchronized void evict(long now) {
+        if (usersByEmail.size() < maxEntries) {
+            return;
+        }
+        usersByEmail.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = usersByEmail.size() - maxEntries + Math.max(1, maxEntries / 10);
+        if (excess > 0) {
+            // Dates d'accès relevées avant le tri : elles changent pendant que d'autres requêtes lisent le cache
+            record Access(String email, CachedUser entry, long lastAccess) {
+            }
+            usersByEmail.entrySet().stream()
+                    .map(entry -> new Access(entry.getKey(), entry.getValue(), entry.getValue().lastAccess))
+                    .sorted(Comparator.comparingLong(Access::lastAccess))
+                    .limit(excess)
+                    .toList()
+                    .forEach(access -> usersByEmail.remove(access.email(), access.entry()));
+        }
+    }
+
+    private static final class CachedUser {
+        private final User user;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private CachedUser(User user, long expiresAt, long lastAccess) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
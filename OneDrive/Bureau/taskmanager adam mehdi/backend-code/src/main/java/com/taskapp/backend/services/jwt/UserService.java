@@ -7,4 +7,7 @@ public interface UserService {
 
    UserDetailsService userDetailService();
 
+   // Même recherche, servie par UserDetailsCache : utilisée à chaque requête authentifiée par JWT
+   UserDetailsService cachedUserDetailService();
+
 }
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
     @Override
     public UserDetailsService userDetailService() {
         return new UserDetailsService() {
@@ -22,4 +23,10 @@ public class UserServiceImpl implements UserService {
             }
         };
     }
+
+    @Override
+    public UserDetailsService cachedUserDetailService() {
+        return username -> userDetailsCache.get(username, email -> userRepository.findFirstByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found")));
+    }
 }
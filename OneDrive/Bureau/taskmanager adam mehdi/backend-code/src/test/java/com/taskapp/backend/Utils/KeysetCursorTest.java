@@ -0,0 +1,144 @@
+package com.taskapp.backend.Utils;
+
+import com.taskapp.backend.entities.Comment;
+import com.taskapp.backend.entities.Notification;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.repositories.CommentRepository;
+import com.taskapp.backend.repositories.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parcours complet par curseur quand des lignes anciennes n'ont pas de date, pour toutes les tailles
+ * de page : chaque ligne est lue une fois, y compris quand une ligne sans date termine une page.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset_cursor;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,KEY,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class KeysetCursorTest {
+
+    private static final Sort DESC = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final Sort ASC = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"));
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User user;
+    private Task task;
+    private final List<Long> dated = new ArrayList<>();
+    private final List<Long> undated = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("user");
+        user.setEmail("user@test.com");
+        entityManager.persist(user);
+
+        task = new Task();
+        task.setTitle("task");
+        task.setStatus("À FAIRE");
+        task.setPriority("MOYENNE");
+        entityManager.persist(task);
+    }
+
+    // Tri décroissant : les lignes datées (plus récente d'abord), puis les non datées par id décroissant
+    @Test
+    void descendingScrollReachesUndatedRows() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            undated.add(notification(null));
+            dated.add(notification(now.minusMinutes(i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expected = new ArrayList<>(dated);
+        expected.addAll(undated.reversed());
+        for (int size = 1; size <= 7; size++) {
+            assertThat(scrollAll(size, DESC, Notification::getId, (position, sort, limit) ->
+                    notificationRepository.findByUserIdAndCreatedAtIsNotNull(user.getId(), position, sort, limit),
+                    (position, sort, limit) ->
+                    notificationRepository.findByUserIdAndCreatedAtIsNull(user.getId(), position, sort, limit)))
+                    .as("page size %d", size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    // Tri croissant : les non datées d'abord, par id croissant, puis les datées
+    @Test
+    void ascendingScrollLeavesUndatedRowsFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            dated.add(comment(now.plusMinutes(i)));
+            undated.add(comment(null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expected = new ArrayList<>(undated);
+        expected.addAll(dated);
+        for (int size = 1; size <= 7; size++) {
+            assertThat(scrollAll(size, ASC, Comment::getId, (position, sort, limit) ->
+                    commentRepository.findByTaskIdAndCreatedAtIsNotNull(task.getId(), position, sort, limit),
+                    (position, sort, limit) ->
+                    commentRepository.findByTaskIdAndCreatedAtIsNull(task.getId(), position, sort, limit)))
+                    .as("page size %d", size).containsExactlyElementsOf(expected);
+        }
+    }
+
+    // Chaque page repart du curseur encodé de la précédente, comme un client HTTP
+    private <T> List<Long> scrollAll(int size, Sort sort, Function<T, Long> id,
+                                     KeysetCursor.Query<T> datedQuery, KeysetCursor.Query<T> undatedQuery) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<T> window = KeysetCursor.scroll(KeysetCursor.decode(cursor, "createdAt", "id"), sort,
+                    KeysetCursor.limit(size), datedQuery, undatedQuery);
+            window.getContent().forEach(row -> seen.add(id.apply(row)));
+            cursor = KeysetCursor.encode(window);
+        } while (cursor != null && seen.size() <= dated.size() + undated.size());
+        return seen;
+    }
+
+    private Long notification(LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setMessage("message");
+        notification.setUser(user);
+        notification.setCreatedAt(createdAt);
+        return entityManager.persist(notification).getId();
+    }
+
+    private Long comment(LocalDateTime createdAt) {
+        Comment comment = new Comment();
+        comment.setContent("comment");
+        comment.setTask(task);
+        comment.setCreatedBy(user);
+        comment.setCreatedAt(createdAt);
+        return entityManager.persist(comment).getId();
+    }
+}
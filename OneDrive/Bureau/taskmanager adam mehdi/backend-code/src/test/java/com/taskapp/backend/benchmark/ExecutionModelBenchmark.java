@@ -0,0 +1,132 @@
+package com.taskapp.backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modèle d'exécution des requêtes face au pool de 10 connexions, sans base réelle :
+ * une rafale de requêtes dont 70 % tiennent une connexion pendant une requête SQL simulée
+ * et 30 % sont servies depuis la mémoire (boîte de notifications, caches d'authentification).
+ * - platform : pool Tomcat par défaut, 200 threads plateforme ;
+ * - virtual : un thread virtuel par requête, sans limite ;
+ * - virtual-limited : idem, borné comme DatabaseConcurrencyLimitFilter (4 permis par connexion).
+ * Le temps moyen par rafale donne le débit ; le p99 par requête est affiché en fin d'essai.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModelBenchmark {
+
+    private static final int CONNECTIONS = 10;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int PERMITS_PER_CONNECTION = 4;
+    private static final long QUERY_MICROS = 2_000;
+    private static final long MEMORY_MICROS = 200;
+
+    @Param({"platform", "virtual", "virtual-limited"})
+    public String model;
+
+    @Param({"2000"})
+    public int burst;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+    private Semaphore limiter;
+    private long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connections = new Semaphore(CONNECTIONS, true);
+        if (model.startsWith("virtual")) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            if ("virtual-limited".equals(model)) {
+                limiter = new Semaphore(CONNECTIONS * PERMITS_PER_CONNECTION, true);
+            }
+        } else {
+            executor = Executors.newFixedThreadPool(TOMCAT_THREADS);
+        }
+        latencies = new long[burst * 1_000];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        if (count > 0) {
+            System.out.printf("%n[%s] requests=%d p50=%.2f ms p99=%.2f ms%n", model, count,
+                    sorted[count / 2] / 1e6, sorted[(int) (count * 0.99)] / 1e6);
+        }
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            boolean usesDatabase = ThreadLocalRandom.current().nextInt(10) < 7;
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                handle(usesDatabase);
+                int slot = recorded.getAndIncrement();
+                if (slot < latencies.length) {
+                    latencies[slot] = System.nanoTime() - submitted;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private void handle(boolean usesDatabase) throws InterruptedException {
+        if (limiter != null) {
+            limiter.acquire();
+        }
+        try {
+            if (usesDatabase) {
+                connections.acquire();
+                try {
+                    TimeUnit.MICROSECONDS.sleep(QUERY_MICROS);
+                } finally {
+                    connections.release();
+                }
+            } else {
+                TimeUnit.MICROSECONDS.sleep(MEMORY_MICROS);
+            }
+        } finally {
+            if (limiter != null) {
+                limiter.release();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ExecutionModelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.taskapp.backend.benchmark;
+
+import com.taskapp.backend.Utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'authentification JWT par requête, tel que le paie JwtAuthenticationFilter :
+ * - legacy : clé recalculée et jeton analysé trois fois (nom, validité/expiration, rôle) ;
+ * - verifyUncached : une seule analyse avec le parseur partagé ;
+ * - verifyCached : jeton déjà vérifié, servi par le cache d'empreintes.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "413F4428472B4B6258655368566D5970337336763979244226452948404D6351";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(10_000);
+        userDetails = new User("admin@test.com", "", List.of());
+        token = jwtUtil.generateToken(Map.of("role", "ADMIN"), userDetails);
+        jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        String userName = legacyClaims(token).getSubject();
+        boolean valid = userName.equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return valid ? legacyClaims(token).get("role") : null;
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        return jwtUtil.extractAllClaims(token).get("role");
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        Claims claims = jwtUtil.verify(token);
+        return claims.getSubject().equals(userDetails.getUsername()) ? claims.get("role") : null;
+    }
+
+    // Chemin d'origine : décodage de la clé et construction d'un parseur à chaque appel
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.taskapp.backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'insertion de tâches (lignes/s) selon la génération des identifiants, avec les
+ * instructions qu'émet Hibernate dans chaque cas :
+ * - identity : un INSERT par ligne suivi de la lecture de la clé générée (GenerationType.IDENTITY) ;
+ * - pooled : un bloc de 50 ids réservé dans id_generator, puis des INSERT par lots de 50
+ *   (TableGenerator pooled + hibernate.jdbc.batch_size).
+ * Chaque invocation insère un lot de {@code rows} tâches dans une transaction.
+ *
+ * Base cible : -Dbench.url (par défaut la base MySQL de l'application, avec rewriteBatchedStatements),
+ * -Dbench.user et -Dbench.password. Les tables bench_task et bench_id_generator sont recréées.
+ *
+ * Lancement : mvn test-compile puis exécuter main() avec le classpath de test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskInsertBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+    private static final String INSERT_IDENTITY =
+            "INSERT INTO bench_task (title, description, status, priority, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID =
+            "INSERT INTO bench_task (id, title, description, status, priority, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"identity", "pooled"})
+    public String strategy;
+
+    private Connection connection;
+    private long nextId;
+    private long lastReservedId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.url", "jdbc:mysql://localhost:3306/task_db_new?rewriteBatchedStatements=true"),
+                System.getProperty("bench.user", "root"),
+                System.getProperty("bench.password", "12345678"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_task");
+            statement.execute("DROP TABLE IF EXISTS bench_id_generator");
+            statement.execute("CREATE TABLE bench_task (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255), "
+                    + "description VARCHAR(255), status VARCHAR(255), priority VARCHAR(255), created_at TIMESTAMP, updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE bench_id_generator (sequence_name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+            statement.execute("INSERT INTO bench_id_generator VALUES ('task', 1)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_task");
+            statement.execute("DROP TABLE IF EXISTS bench_id_generator");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long insert() throws SQLException {
+        long inserted = "identity".equals(strategy) ? insertIdentity() : insertPooled();
+        connection.commit();
+        return inserted;
+    }
+
+    private long insertIdentity() throws SQLException {
+        long lastId = 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i, now);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    private long insertPooled() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_WITH_ID)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setLong(1, nextId());
+                bind(insert, 2, i, now);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return nextId;
+    }
+
+    // Optimiseur pooled : une lecture et une mise à jour d'id_generator par bloc de BATCH_SIZE ids
+    private long nextId() throws SQLException {
+        if (nextId == 0 || nextId > lastReservedId) {
+            long value;
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT next_val FROM bench_id_generator WHERE sequence_name = 'task' FOR UPDATE");
+                 ResultSet result = select.executeQuery()) {
+                result.next();
+                value = result.getLong(1);
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE bench_id_generator SET next_val = ? WHERE sequence_name = 'task'")) {
+                update.setLong(1, value + BATCH_SIZE);
+                update.executeUpdate();
+            }
+            nextId = value;
+            lastReservedId = value + BATCH_SIZE - 1;
+        }
+        return nextId++;
+    }
+
+    private static void bind(PreparedStatement statement, int from, int i, Timestamp now) throws SQLException {
+        statement.setString(from, "Tâche " + i);
+        statement.setString(from + 1, "Importée par le benchmark");
+        statement.setString(from + 2, "À FAIRE");
+        statement.setString(from + 3, "MOYENNE");
+        statement.setTimestamp(from + 4, now);
+        statement.setTimestamp(from + 5, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
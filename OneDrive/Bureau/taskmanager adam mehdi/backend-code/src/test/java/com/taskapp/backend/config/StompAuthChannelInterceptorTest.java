@@ -0,0 +1,66 @@
+package com.taskapp.backend.config;
+
+import com.taskapp.backend.Utils.JwtUtil;
+import com.taskapp.backend.services.jwt.TokenRevocationService;
+import com.taskapp.backend.services.jwt.TokenVersionRegistry;
+import com.taskapp.backend.services.jwt.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class StompAuthChannelInterceptorTest {
+
+    private static final Principal USER = new UsernamePasswordAuthenticationToken("42", null);
+
+    private final StompAuthChannelInterceptor interceptor = new StompAuthChannelInterceptor(mock(JwtUtil.class),
+            mock(UserService.class), mock(TokenVersionRegistry.class), mock(TokenRevocationService.class));
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void subscribeToOwnQueueIsAllowed() {
+        Message<?> message = frame(StompCommand.SUBSCRIBE, "/user/queue/notifications", USER);
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    void subscribeToAnotherUsersQueueIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/7/queue/notifications", USER), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/queue/notifications-user123", USER), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/tasks", USER), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void sendToBrokerIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/queue/notifications-user123", USER), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void unauthenticatedSubscribeIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/queue/notifications", null), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static Message<?> frame(StompCommand command, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
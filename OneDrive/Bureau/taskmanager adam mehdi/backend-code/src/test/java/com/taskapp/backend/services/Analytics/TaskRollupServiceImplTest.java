@@ -0,0 +1,75 @@
+package com.taskapp.backend.services.Analytics;
+
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.TaskRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rattrapage des agrégats au démarrage : appelé par l'écouteur d'événement, donc sans
+ * transaction en cours, il doit ouvrir la sienne pour ses requêtes de modification.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskRollupServiceImpl.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task_rollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,KEY,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskRollupServiceImplTest {
+
+    @Autowired
+    private TaskRollupServiceImpl taskRollupService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskRollupRepository taskRollupRepository;
+
+    @AfterEach
+    void cleanUp() {
+        taskRollupRepository.deleteAll();
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void rebuildIfEmptyRunsOutsideATransaction() {
+        taskRepository.save(task("À FAIRE", LocalDateTime.now()));
+        taskRepository.save(task("À FAIRE", LocalDateTime.now()));
+        taskRepository.save(task("TERMINÉ", null));
+
+        taskRollupService.rebuildIfEmpty();
+
+        assertThat(taskRollupRepository.sumAll()).isEqualTo(3);
+        assertThat(taskRollupRepository.sumByStatus())
+                .anySatisfy(row -> {
+                    assertThat(row.getBucket()).isEqualTo("À FAIRE");
+                    assertThat(row.getTotal()).isEqualTo(2);
+                });
+    }
+
+    private Task task(String status, LocalDateTime createdAt) {
+        Task task = new Task();
+        task.setTitle("task");
+        task.setStatus(status);
+        task.setPriority("MOYENNE");
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(LocalDateTime.now());
+        return task;
+    }
+}
@@ -0,0 +1,245 @@
+package com.taskapp.backend.services.Comment;
+
+import com.taskapp.backend.config.HibernateConfig;
+import com.taskapp.backend.dto.CommentDTO;
+import com.taskapp.backend.dto.CursorPageDTO;
+import com.taskapp.backend.entities.Comment;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.User;
+import com.taskapp.backend.services.Notification.NotificationFanoutService;
+import com.taskapp.backend.services.Notification.NotificationService;
+import com.taskapp.backend.services.Projection.DtoAssembler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fils de commentaires dont une partie n'a pas encore de chemin matérialisé (rattrapage en cours,
+ * ou fil plus profond que CommentPaths.MAX_DEPTH) : l'arbre est alors reconstruit par parent_id.
+ * Compteurs de réponses : incréments, décréments à la suppression et recomptage concordent.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CommentServiceImpl.class, DtoAssembler.class, HibernateConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:comment_service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,KEY,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CommentServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentServiceImpl commentService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private NotificationFanoutService notificationFanoutService;
+
+    private User user;
+    private Task task;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("user");
+        user.setEmail("user@test.com");
+        entityManager.persist(user);
+
+        task = new Task();
+        task.setTitle("task");
+        task.setStatus("À FAIRE");
+        task.setPriority("MOYENNE");
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(task);
+    }
+
+    @Test
+    void pathlessRepliesStayUnderTheirParent() {
+        Comment root = comment(null);
+        root.setPath(CommentPaths.childOf(null, root.getId()));
+        root.setDepth(0);
+        Comment first = comment(root);
+        Comment second = comment(root);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentDTO> tree = commentService.getCommentsByTaskId(task.getId());
+        assertThat(tree).extracting(CommentDTO::getId).containsExactly(root.getId());
+        assertThat(tree.get(0).getReplies()).extracting(CommentDTO::getId).containsExactly(first.getId(), second.getId());
+
+        Page<CommentDTO> threads = commentService.getCommentThreads(task.getId(), 0, 10);
+        assertThat(threads.getTotalElements()).isEqualTo(1);
+        assertThat(threads.getContent().get(0).getReplies()).hasSize(2);
+
+        CursorPageDTO<CommentDTO> preview = commentService.scrollCommentThreads(task.getId(), null, 10, 1);
+        CommentDTO thread = preview.getContent().get(0);
+        assertThat(thread.getReplies()).extracting(CommentDTO::getId).containsExactly(first.getId());
+        assertThat(thread.getRepliesCursor()).isNotNull();
+
+        CursorPageDTO<CommentDTO> rest = commentService.scrollReplies(root.getId(), thread.getRepliesCursor(), 10);
+        assertThat(rest.getContent()).extracting(CommentDTO::getId).containsExactly(second.getId());
+        assertThat(rest.isHasNext()).isFalse();
+    }
+
+    @Test
+    void everyThreadOfAPageGetsItsPreviews() {
+        signInAsAdmin();
+        List<CommentDTO> roots = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CommentDTO root = reply(null);
+            reply(root.getId());
+            reply(root.getId());
+            roots.add(root);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageDTO<CommentDTO> first = commentService.scrollCommentThreads(task.getId(), null, 2, 1);
+        CursorPageDTO<CommentDTO> second = commentService.scrollCommentThreads(task.getId(), first.getNextCursor(), 2, 1);
+
+        List<CommentDTO> threads = new ArrayList<>(first.getContent());
+        threads.addAll(second.getContent());
+        assertThat(threads).extracting(CommentDTO::getId).containsExactlyElementsOf(roots.stream().map(CommentDTO::getId).toList());
+        // Y compris le dernier fil de chaque page, borne supérieure de la requête des aperçus
+        assertThat(threads).allSatisfy(thread -> {
+            assertThat(thread.getReplies()).hasSize(1);
+            assertThat(thread.getRepliesCursor()).isNotNull();
+        });
+    }
+
+    @Test
+    void backfillStopsAtMaxDepth() {
+        List<Comment> chain = new ArrayList<>();
+        Comment parent = null;
+        for (int depth = 0; depth <= CommentPaths.MAX_DEPTH + 2; depth++) {
+            parent = comment(parent);
+            chain.add(parent);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        commentService.backfillThreads();
+        entityManager.flush();
+        entityManager.clear();
+
+        Comment deepest = entityManager.find(Comment.class, chain.get(CommentPaths.MAX_DEPTH).getId());
+        assertThat(deepest.getDepth()).isEqualTo(CommentPaths.MAX_DEPTH);
+        assertThat(entityManager.find(Comment.class, chain.get(CommentPaths.MAX_DEPTH + 1).getId()).getPath()).isNull();
+        assertThat(entityManager.find(Comment.class, chain.get(0).getId()).getReplyCount()).isEqualTo(chain.size() - 1);
+
+        CommentDTO node = commentService.getCommentsByTaskId(task.getId()).get(0);
+        int levels = 1;
+        while (node.getReplies() != null) {
+            node = node.getReplies().get(0);
+            levels++;
+        }
+        assertThat(levels).isEqualTo(chain.size());
+    }
+
+    @Test
+    void replyToUncountedCommentStartsFromZero() {
+        Comment root = comment(null);
+        root.setPath(CommentPaths.childOf(null, root.getId()));
+        root.setDepth(0);
+        entityManager.flush();
+        entityManager.clear();
+        signInAsAdmin();
+
+        reply(root.getId());
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(replyCount(root)).isEqualTo(1);
+
+        // Le rattrapage ne repasse plus sur ce fil et le compte reste juste
+        commentService.backfillThreads();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(replyCount(root)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteSubtractsTheWholeSubthreadAndMatchesRecount() {
+        signInAsAdmin();
+        CommentDTO root = reply(null);
+        CommentDTO first = reply(root.getId());
+        reply(first.getId());
+        CommentDTO second = reply(root.getId());
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(replyCount(root.getId())).isEqualTo(3);
+        assertThat(replyCount(first.getId())).isEqualTo(1);
+
+        commentService.deleteComment(first.getId());
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(replyCount(root.getId())).isEqualTo(1);
+
+        // Recompter depuis zéro donne le même résultat que les décréments
+        entityManager.getEntityManager().createQuery("UPDATE Comment c SET c.replyCount = null").executeUpdate();
+        entityManager.clear();
+        commentService.backfillThreads();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(replyCount(root.getId())).isEqualTo(1);
+        assertThat(replyCount(second.getId())).isZero();
+    }
+
+    private void signInAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    private CommentDTO reply(Long parentId) {
+        CommentDTO dto = new CommentDTO();
+        dto.setContent("reply");
+        dto.setTaskId(task.getId());
+        dto.setParentId(parentId);
+        return commentService.createComment(dto);
+    }
+
+    private Integer replyCount(Comment comment) {
+        return replyCount(comment.getId());
+    }
+
+    private Integer replyCount(Long id) {
+        return entityManager.find(Comment.class, id).getReplyCount();
+    }
+
+    private Comment comment(Comment parent) {
+        Comment comment = new Comment();
+        comment.setContent("comment");
+        comment.setTask(task);
+        comment.setCreatedBy(user);
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setParent(parent);
+        return entityManager.persist(comment);
+    }
+}
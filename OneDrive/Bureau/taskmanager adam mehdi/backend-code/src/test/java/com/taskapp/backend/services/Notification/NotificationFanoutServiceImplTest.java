@@ -0,0 +1,84 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.entities.NotificationEvent;
+import com.taskapp.backend.repositories.NotificationEventRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationFanoutServiceImplTest {
+
+    @Mock private NotificationEventRepository eventRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private TaskRepository taskRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private NotificationPublisher notificationPublisher;
+    @Mock private NotificationInbox notificationInbox;
+
+    private NotificationFanoutServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationFanoutServiceImpl(eventRepository, userRepository, taskRepository, jdbcTemplate,
+                transactionTemplate, notificationPublisher, notificationInbox, new SimpleMeterRegistry(),
+                1, 10, 5, 168, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // 2000 destinataires aux identifiants de 7 chiffres : environ 16 000 caractères, bien au-delà d'une colonne
+    @Test
+    void largeRecipientSetIsSplitAcrossEvents() {
+        AtomicLong ids = new AtomicLong();
+        when(eventRepository.save(any(NotificationEvent.class))).thenAnswer(invocation -> {
+            NotificationEvent event = invocation.getArgument(0);
+            event.setId(ids.incrementAndGet());
+            return event;
+        });
+        List<Long> recipients = LongStream.range(1_000_000, 1_002_000).boxed().toList();
+
+        service.notifyUsers(recipients, "message", 1L);
+
+        ArgumentCaptor<NotificationEvent> saved = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(eventRepository, atLeast(2)).save(saved.capture());
+        List<Long> delivered = new ArrayList<>();
+        for (NotificationEvent event : saved.getAllValues()) {
+            assertThat(event.getRecipientIds().length()).isLessThanOrEqualTo(NotificationEvent.RECIPIENT_IDS_LENGTH);
+            assertThat(event.getMessage()).isEqualTo("message");
+            Arrays.stream(event.getRecipientIds().split(",")).map(Long::valueOf).forEach(delivered::add);
+        }
+        assertThat(delivered).containsExactlyElementsOf(recipients);
+    }
+
+    @Test
+    void duplicatesAreDroppedAndSmallSetsStayInOneEvent() {
+        assertThat(NotificationFanoutServiceImpl.recipientIdChunks(List.of(3L, 1L, 3L, 2L))).containsExactly("3,1,2");
+        assertThat(NotificationFanoutServiceImpl.recipientIdChunks(List.of())).isEmpty();
+    }
+}
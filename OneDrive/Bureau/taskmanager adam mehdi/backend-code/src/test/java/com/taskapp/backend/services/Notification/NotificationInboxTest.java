@@ -0,0 +1,83 @@
+package com.taskapp.backend.services.Notification;
+
+import com.taskapp.backend.dto.NotificationDTO;
+import com.taskapp.backend.repositories.NotificationRepository;
+import com.taskapp.backend.services.Projection.DtoAssembler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationInboxTest {
+
+    private static final long USER_ID = 7L;
+
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private DtoAssembler dtoAssembler;
+
+    private NotificationInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        inbox = new NotificationInbox(notificationRepository, dtoAssembler, 50, 900_000, 10_000);
+        when(dtoAssembler.notifications(anyList())).thenReturn(List.of());
+    }
+
+    // Une notification validée pendant les requêtes du chargement ne doit pas être perdue
+    @Test
+    void notificationCommittedDuringLoadIsNotLost() {
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(notificationRepository.findByUserIdOrderByCreatedAtDesc(eq(USER_ID), any())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                inbox.created(notification(1L));
+            }
+            return Page.empty();
+        });
+        when(notificationRepository.countByUserId(USER_ID)).thenReturn(0L, 1L);
+        when(notificationRepository.countByUserIdAndIsRead(USER_ID, false)).thenReturn(0L, 1L);
+
+        inbox.countUnread(USER_ID);
+
+        // La lecture dépassée n'a pas été conservée : la suivante relit la base puis reste en mémoire
+        assertThat(inbox.countUnread(USER_ID)).isEqualTo(1);
+        assertThat(inbox.countUnread(USER_ID)).isEqualTo(1);
+        verify(notificationRepository, times(2)).countByUserIdAndIsRead(USER_ID, false);
+    }
+
+    @Test
+    void changesAfterLoadAreAppliedInMemory() {
+        when(notificationRepository.findByUserIdOrderByCreatedAtDesc(eq(USER_ID), any())).thenReturn(Page.empty());
+        when(notificationRepository.countByUserId(USER_ID)).thenReturn(0L);
+        when(notificationRepository.countByUserIdAndIsRead(USER_ID, false)).thenReturn(0L);
+
+        assertThat(inbox.countUnread(USER_ID)).isZero();
+        inbox.created(notification(1L));
+        inbox.created(notification(2L));
+        inbox.markedRead(USER_ID, 1L);
+
+        assertThat(inbox.countUnread(USER_ID)).isEqualTo(1);
+        verify(notificationRepository, times(1)).countByUserIdAndIsRead(USER_ID, false);
+    }
+
+    private NotificationDTO notification(Long id) {
+        NotificationDTO notification = new NotificationDTO();
+        notification.setId(id);
+        notification.setUserId(USER_ID);
+        notification.setMessage("message");
+        return notification;
+    }
+}
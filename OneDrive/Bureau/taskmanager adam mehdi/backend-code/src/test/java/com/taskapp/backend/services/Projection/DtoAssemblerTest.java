@@ -0,0 +1,176 @@
+package com.taskapp.backend.services.Projection;
+
+import com.taskapp.backend.config.HibernateConfig;
+import com.taskapp.backend.config.QueryCountInspector;
+import com.taskapp.backend.dto.TaskDTO;
+import com.taskapp.backend.entities.Attachment;
+import com.taskapp.backend.entities.Comment;
+import com.taskapp.backend.entities.Label;
+import com.taskapp.backend.entities.Notification;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.entities.TaskHistory;
+import com.taskapp.backend.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Budget de requêtes de DtoAssembler : une page coûte une seule lecture par association,
+ * quelle que soit sa taille, et les écritures vidées avant la conversion ne comptent pas.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DtoAssembler.class, HibernateConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dto_assembler;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,KEY,USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "projection.query-budget.strict=true"
+})
+class DtoAssemblerTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DtoAssembler dtoAssembler;
+
+    @BeforeEach
+    void setUp() {
+        Set<Label> labels = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Label label = new Label();
+            label.setName("label " + i);
+            label.setColor("#00000" + i);
+            labels.add(entityManager.persist(label));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            User user = new User();
+            user.setName("user " + i);
+            user.setEmail("user" + i + "@test.com");
+            entityManager.persist(user);
+
+            Task task = new Task();
+            task.setTitle("task " + i);
+            task.setStatus("À FAIRE");
+            task.setPriority("MOYENNE");
+            task.setAssignedTo(user);
+            task.setCreatedBy(user);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            task.setLabels(new HashSet<>(labels));
+            entityManager.persist(task);
+
+            Comment comment = new Comment();
+            comment.setContent("comment " + i);
+            comment.setTask(task);
+            comment.setCreatedBy(user);
+            comment.setCreatedAt(now);
+            comment.setDepth(0);
+            entityManager.persist(comment);
+
+            Attachment attachment = new Attachment();
+            attachment.setFileName("file " + i);
+            attachment.setTask(task);
+            attachment.setUploadedBy(user);
+            attachment.setUploadedAt(now);
+            entityManager.persist(attachment);
+
+            Notification notification = new Notification();
+            notification.setMessage("notification " + i);
+            notification.setUser(user);
+            notification.setTask(task);
+            notification.setCreatedAt(now);
+            entityManager.persist(notification);
+
+            TaskHistory history = new TaskHistory();
+            history.setTask(task);
+            history.setModifiedBy(user);
+            history.setField("status");
+            history.setModifiedAt(now);
+            entityManager.persist(history);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void taskPageCostsOneQuery() {
+        List<Task> tasks = load("SELECT t FROM Task t", Task.class);
+
+        List<TaskDTO> dtos = assertSelects(1, () -> dtoAssembler.tasks(tasks));
+
+        assertThat(dtos).hasSize(PAGE_SIZE);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getLabels()).hasSize(3));
+    }
+
+    @Test
+    void commentPageCostsOneQuery() {
+        List<Comment> comments = load("SELECT c FROM Comment c", Comment.class);
+
+        assertThat(assertSelects(1, () -> dtoAssembler.comments(comments))).hasSize(PAGE_SIZE);
+    }
+
+    @Test
+    void attachmentPageCostsOneQuery() {
+        List<Attachment> attachments = load("SELECT a FROM Attachment a", Attachment.class);
+
+        assertThat(assertSelects(1, () -> dtoAssembler.attachments(attachments))).hasSize(PAGE_SIZE);
+    }
+
+    @Test
+    void notificationPageCostsOneQuery() {
+        List<Notification> notifications = load("SELECT n FROM Notification n", Notification.class);
+
+        assertThat(assertSelects(1, () -> dtoAssembler.notifications(notifications))).hasSize(PAGE_SIZE);
+    }
+
+    @Test
+    void historyPageCostsOneQuery() {
+        List<TaskHistory> entries = load("SELECT h FROM TaskHistory h", TaskHistory.class);
+
+        assertThat(assertSelects(1, () -> dtoAssembler.history(entries))).hasSize(PAGE_SIZE);
+    }
+
+    // Comme updateTask : la tâche modifiée est vidée (UPDATE) par la lecture des étiquettes, hors budget
+    @Test
+    void pendingUpdateFlushedDuringAssemblyIsNotCounted() {
+        Task task = load("SELECT t FROM Task t", Task.class).get(0);
+        task.setTitle("renamed");
+        long statementsBefore = QueryCountInspector.current();
+
+        TaskDTO dto = assertSelects(1, () -> dtoAssembler.task(task));
+
+        assertThat(dto.getTitle()).isEqualTo("renamed");
+        assertThat(QueryCountInspector.current() - statementsBefore).isEqualTo(2);
+    }
+
+    private <E> List<E> load(String query, Class<E> type) {
+        List<E> rows = entityManager.getEntityManager().createQuery(query, type).getResultList();
+        assertThat(rows).hasSize(PAGE_SIZE);
+        return rows;
+    }
+
+    private <T> T assertSelects(int expected, Supplier<T> assembly) {
+        long before = QueryCountInspector.currentSelects();
+        T result = assembly.get();
+        assertThat(QueryCountInspector.currentSelects() - before).isEqualTo(expected);
+        return result;
+    }
+}
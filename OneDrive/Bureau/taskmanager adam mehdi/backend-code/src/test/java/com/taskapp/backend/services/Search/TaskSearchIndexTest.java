@@ -0,0 +1,80 @@
+package com.taskapp.backend.services.Search;
+
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.projections.TaskTextView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTest {
+
+    @Mock private TaskRepository taskRepository;
+
+    @TempDir
+    Path indexDir;
+
+    // Une tâche validée entre la requête de rattrapage et la bascule sur l'index chargé doit y figurer
+    @Test
+    void writeCommittedDuringSnapshotLoadIsKept() throws InterruptedException {
+        LocalDateTime saved = LocalDateTime.now().minusHours(1);
+        when(taskRepository.findTextAfterId(anyLong(), any())).thenReturn(List.of(text(1L, "Rapport mensuel", saved)));
+        TaskSearchIndex previous = new TaskSearchIndex(taskRepository, indexDir.toString());
+        previous.rebuild();
+        previous.flush();
+        previous.shutdown();
+
+        TaskSearchIndex index = new TaskSearchIndex(taskRepository, indexDir.toString());
+        when(taskRepository.findTextUpdatedSince(any())).thenAnswer(invocation -> {
+            index.index(2L, "Facture urgente", null, LocalDateTime.now());
+            return List.of();
+        });
+        when(taskRepository.findIdsAfterId(anyLong(), any())).thenReturn(List.of(1L, 2L));
+
+        index.loadOnStartup();
+        for (int i = 0; i < 100 && !index.isReady(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("facture", null, 10)).isEqualTo(Optional.of(List.of(2L)));
+        assertThat(index.search("rapport", null, 10)).isEqualTo(Optional.of(List.of(1L)));
+        index.shutdown();
+    }
+
+    private TaskTextView text(Long id, String title, LocalDateTime updatedAt) {
+        return new TaskTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskapp.backend.services.Task;
+
+import com.taskapp.backend.dto.BulkTaskRequest;
+import com.taskapp.backend.dto.BulkTaskResultDTO;
+import com.taskapp.backend.entities.Label;
+import com.taskapp.backend.entities.Task;
+import com.taskapp.backend.repositories.LabelRepository;
+import com.taskapp.backend.repositories.TaskRepository;
+import com.taskapp.backend.repositories.UserRepository;
+import com.taskapp.backend.repositories.projections.TaskLabelView;
+import com.taskapp.backend.services.Analytics.TaskRollupService;
+import com.taskapp.backend.services.Notification.NotificationFanoutService;
+import com.taskapp.backend.services.Search.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBulkServiceImplTest {
+
+    private static final long TASK_ID = 1L;
+    private static final long LABEL_L = 10L;
+    private static final long LABEL_M = 20L;
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private LabelRepository labelRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private NotificationFanoutService notificationFanoutService;
+    @Mock private KanbanCounters kanbanCounters;
+    @Mock private TaskRollupService taskRollupService;
+    @Mock private TaskSearchIndex taskSearchIndex;
+
+    private TaskBulkServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskBulkServiceImpl(taskRepository, userRepository, labelRepository, jdbcTemplate,
+                notificationFanoutService, kanbanCounters, taskRollupService, taskSearchIndex);
+    }
+
+    // La tâche porte L et M ; add=[L], remove=[L, M] : L est conservée, seule M est retirée
+    @Test
+    void labelBothAddedAndRemovedIsKept() {
+        when(labelRepository.findAllById(anyCollection())).thenReturn(List.of(label(LABEL_L, "L"), label(LABEL_M, "M")));
+        when(taskRepository.findLabelsByTaskIds(anyCollection())).thenReturn(List.of(link(LABEL_L, "L"), link(LABEL_M, "M")));
+
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setIds(List.of(TASK_ID));
+        request.setAddLabelIds(List.of(LABEL_L));
+        request.setRemoveLabelIds(List.of(LABEL_L, LABEL_M));
+
+        BulkTaskResultDTO result = service.apply(List.of(task()), request);
+
+        verify(taskRepository).deleteLabelLinks(Set.of(TASK_ID), Set.of(LABEL_M));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO task_labels"), anyList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> history = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO task_history"), history.capture(), any(int[].class));
+        assertThat(history.getValue()).hasSize(1);
+        assertThat(history.getValue().get(0)).containsSequence(TASK_ID, null, "labels", "M", null);
+        assertThat(result.getAffected()).isEqualTo(1);
+        assertThat(result.getHistoryEntries()).isEqualTo(1);
+    }
+
+    // La tâche n'a pas L ; add=[L], remove=[L] : L est ajoutée, rien n'est retiré
+    @Test
+    void overlappingLabelMissingFromTaskIsAdded() {
+        when(labelRepository.findAllById(anyCollection())).thenReturn(List.of(label(LABEL_L, "L")));
+        when(taskRepository.findLabelsByTaskIds(anyCollection())).thenReturn(List.of());
+
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setIds(List.of(TASK_ID));
+        request.setAddLabelIds(List.of(LABEL_L));
+        request.setRemoveLabelIds(List.of(LABEL_L));
+
+        BulkTaskResultDTO result = service.apply(List.of(task()), request);
+
+        verify(taskRepository, never()).deleteLabelLinks(anyCollection(), anyCollection());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO task_labels"), anyList());
+        assertThat(result.getAffected()).isEqualTo(1);
+    }
+
+    private static Task task() {
+        Task task = new Task();
+        task.setId(TASK_ID);
+        task.setStatus("À FAIRE");
+        return task;
+    }
+
+    private static Label label(long id, String name) {
+        Label label = new Label();
+        label.setId(id);
+        label.setName(name);
+        return label;
+    }
+
+    private static TaskLabelView link(long labelId, String name) {
+        return new TaskLabelView() {
+            @Override public Long getTaskId() { return TASK_ID; }
+            @Override public Long getId() { return labelId; }
+            @Override public String getName() { return name; }
+            @Override public String getColor() { return null; }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskapp.backend.services.jwt;
+
+import com.taskapp.backend.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        UserDetailsCache cache = new UserDetailsCache(new SimpleMeterRegistry(), 300_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        // L'invalidation (hors transaction : immédiate) survient pendant la lecture de l'ancien utilisateur
+        cache.get("a@test.com", email -> {
+            loads.incrementAndGet();
+            cache.invalidate(1L);
+            return user(1L, email);
+        });
+        cache.get("a@test.com", email -> {
+            loads.incrementAndGet();
+            return user(1L, email);
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedEntries() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserDetailsCache cache = new UserDetailsCache(registry, 300_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            cache.get("user" + i + "@test.com", email -> user(loads.incrementAndGet(), email));
+        }
+        Thread.sleep(5);
+        cache.get("user0@test.com", email -> user(loads.incrementAndGet(), email));
+
+        // Dépassement : une seule entrée est retirée, jamais la plus récemment utilisée (user0)
+        cache.get("user10@test.com", email -> user(loads.incrementAndGet(), email));
+        assertThat(registry.get("auth.user.cache.size").gauge().value()).isEqualTo(10);
+        int before = loads.get();
+        cache.get("user0@test.com", email -> user(loads.incrementAndGet(), email));
+        cache.get("user10@test.com", email -> user(loads.incrementAndGet(), email));
+        assertThat(loads).hasValue(before);
+    }
+
+    private static User user(long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
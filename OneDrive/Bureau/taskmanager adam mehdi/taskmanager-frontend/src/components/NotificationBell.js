@@ -7,6 +7,7 @@ import MenuItem from "@mui/material/MenuItem";
 import ListItemText from "@mui/material/ListItemText";
 import CircularProgress from "@mui/material/CircularProgress";
 import authService from "../services/auth";
+import { connectNotifications } from "../services/notificationSocket";
 
 const API_BASE = "http://localhost:8080/api/notifications";
 
@@ -50,17 +51,19 @@ export default function NotificationBell({ onNotificationClick }) {
   };
 
   useEffect(() => {
-    if (userId) {
-      fetchNotifications();
-      fetchUnreadCount();
-    }
+    if (!userId) return undefined;
+    fetchNotifications();
+    fetchUnreadCount();
+    // Les nouvelles notifications et les variations du compteur sont poussées par le serveur
+    return connectNotifications({
+      onNotification: (notif) => setNotifications((prev) => [notif, ...prev.filter((n) => n.id !== notif.id)].slice(0, 10)),
+      onUnreadDelta: (delta) => setUnreadCount((count) => Math.max(0, count + delta)),
+    });
     // eslint-disable-next-line
   }, [userId]);
 
   const handleOpen = (event) => {
     setAnchorEl(event.currentTarget);
-    fetchNotifications();
-    fetchUnreadCount();
   };
   const handleClose = () => setAnchorEl(null);
 
@@ -69,8 +72,7 @@ export default function NotificationBell({ onNotificationClick }) {
       method: "PUT",
       headers: { Authorization: `Bearer ${token}` }
     });
-    fetchNotifications();
-    fetchUnreadCount();
+    setNotifications((prev) => prev.map((n) => (n.id === notifId ? { ...n, read: true } : n)));
     if (onNotificationClick) onNotificationClick(notifId);
   };
 
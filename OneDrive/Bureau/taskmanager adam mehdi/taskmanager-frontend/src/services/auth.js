@@ -33,6 +33,14 @@ const getRole = () => localStorage.getItem("role");
 const getToken = () => localStorage.getItem("token");
 const getUserId = () => localStorage.getItem("userId");
 const logout = () => {
+  // Revoke the token server-side; local state is cleared even if the call fails
+  const token = localStorage.getItem("token");
+  if (token) {
+    fetch(`${API_BASE}/logout`, {
+      method: "POST",
+      headers: { Authorization: `Bearer ${token}` },
+    }).catch(() => {});
+  }
   localStorage.removeItem("token");
   localStorage.removeItem("role");
   localStorage.removeItem("userId");
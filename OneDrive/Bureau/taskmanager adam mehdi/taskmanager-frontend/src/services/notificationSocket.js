@@ -0,0 +1,59 @@
+import authService from "./auth";
+// Client STOMP minimal (WebSocket natif, sans dépendance) pour recevoir les notifications poussées
+const WS_URL = "ws://localhost:8080/ws/websocket";
+const RECONNECT_DELAY_MS = 5000;
+
+function frame(command, headers, body = "") {
+  const lines = Object.entries(headers).map(([key, value]) => `${key}:${value}`);
+  return `${command}\n${lines.join("\n")}\n\n${body}\0`;
+}
+
+function parseFrame(raw) {
+  const separator = raw.indexOf("\n\n");
+  const head = raw.substring(0, separator).split("\n");
+  const headers = {};
+  head.slice(1).forEach((line) => {
+    const index = line.indexOf(":");
+    headers[line.substring(0, index)] = line.substring(index + 1);
+  });
+  return { command: head[0], headers, body: raw.substring(separator + 2).replace(/\0$/, "") };
+}
+
+// handlers : { onNotification(notification), onUnreadDelta(delta) } ; retourne une fonction de fermeture
+export function connectNotifications({ onNotification, onUnreadDelta }) {
+  let socket = null;
+  let closed = false;
+  let retryTimer = null;
+
+  const open = () => {
+    const token = authService.getToken();
+    if (!token || closed) return;
+    socket = new WebSocket(WS_URL);
+    socket.onopen = () => {
+      socket.send(frame("CONNECT", { "accept-version": "1.2", host: "localhost", Authorization: `Bearer ${token}` }));
+    };
+    socket.onmessage = (event) => {
+      String(event.data).split("\0").filter((raw) => raw.trim()).forEach((raw) => {
+        const { command, headers, body } = parseFrame(raw.replace(/^\n+/, ""));
+        if (command === "CONNECTED") {
+          socket.send(frame("SUBSCRIBE", { id: "notifications", destination: "/user/queue/notifications" }));
+          socket.send(frame("SUBSCRIBE", { id: "unread", destination: "/user/queue/notifications/unread" }));
+        } else if (command === "MESSAGE" && headers.subscription === "notifications") {
+          onNotification && onNotification(JSON.parse(body));
+        } else if (command === "MESSAGE" && headers.subscription === "unread") {
+          onUnreadDelta && onUnreadDelta(JSON.parse(body).delta);
+        }
+      });
+    };
+    socket.onclose = () => {
+      if (!closed) retryTimer = setTimeout(open, RECONNECT_DELAY_MS);
+    };
+  };
+
+  open();
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (socket) socket.close();
+  };
+}